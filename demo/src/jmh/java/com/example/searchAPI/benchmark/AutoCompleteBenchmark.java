@@ -0,0 +1,82 @@
+package com.example.searchAPI.benchmark;
+
+import com.example.searchAPI.service.AutoCompleteIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Korean autocomplete lookups: the chosung/jamo prefix probes against the in-memory CONTAINS postings and a
+ * linear substring scan, which is what a leading-wildcard query does over the term dictionary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AutoCompleteBenchmark {
+
+    private static final String SYLLABLES = "가각간감강개검게고공과관교구국군그기김나남내노누다단대도동드라레로리마만매명모무문미바반방배백법보부분비사산상새서선성세소수시신아안양어여연영오요용우원위유은이인일자장재전정제조주중지진차천초최카코타터토통파포하학한해행현호화회";
+    private static final int SIZE = 10;
+
+    @Param({"10000", "100000"})
+    private int termCount;
+
+    private AutoCompleteIndex index;
+    private List<String> terms;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        Map<String, Long> termWeights = new HashMap<>();
+        while (termWeights.size() < termCount) {
+            StringBuilder term = new StringBuilder();
+            int length = 2 + random.nextInt(5);
+            for (int i = 0; i < length; i++) {
+                term.append(SYLLABLES.charAt(random.nextInt(SYLLABLES.length())));
+            }
+            termWeights.put(term.toString(), (long) random.nextInt(1000));
+        }
+        termWeights.put("검색", 500L);
+        termWeights.put("검색엔진", 800L);
+        index = AutoCompleteIndex.build(termWeights);
+        terms = new ArrayList<>(termWeights.keySet());
+    }
+
+    @Benchmark
+    public List<String> chosung() {
+        return index.chosung("ㄱㅅ", SIZE);
+    }
+
+    @Benchmark
+    public List<String> partialSyllable() {
+        return index.chosung("검ㅅ", SIZE);
+    }
+
+    @Benchmark
+    public List<String> contains() {
+        return index.contains("검색", SIZE);
+    }
+
+    @Benchmark
+    public List<String> containsScan() {
+        List<String> matches = new ArrayList<>();
+        for (String term : terms) {
+            if (term.contains("검색")) {
+                matches.add(term);
+            }
+        }
+        return matches;
+    }
+}
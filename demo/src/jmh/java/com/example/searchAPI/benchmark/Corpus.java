@@ -0,0 +1,175 @@
+package com.example.searchAPI.benchmark;
+
+import org.apache.lucene.search.TotalHits;
+import org.elasticsearch.action.search.MultiSearchResponse;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.ShardSearchFailure;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.text.Text;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.fetch.subphase.highlight.HighlightField;
+import org.elasticsearch.search.internal.InternalSearchResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic Korean and English fixtures shared by the benchmarks: search keywords written the way users type
+ * them (plain terms, {@code +include}, {@code -exclude} and {@code "exact phrase"}), forbidden-word lists and
+ * synthetic search hits with highlighted fields.
+ */
+public final class Corpus {
+
+    public static final String KOREAN = "ko";
+    public static final String ENGLISH = "en";
+
+    private static final List<String> KOREAN_TERMS = List.of(
+            "검색", "검색엔진", "엘라스틱서치", "자동완성", "인기검색어", "날씨", "오늘 날씨", "부동산", "아파트 매매",
+            "전세 대출", "주식", "코스피", "환율", "삼성전자", "카카오", "네이버", "뉴스", "속보", "정치", "경제",
+            "사회", "문화", "스포츠", "야구", "축구", "손흥민", "월드컵", "영화", "드라마", "예능", "음악", "아이돌",
+            "맛집", "서울 맛집", "부산 여행", "제주도", "항공권", "호텔 예약", "캠핑", "등산", "자전거", "전기차",
+            "배터리", "반도체", "인공지능", "챗봇", "개발자", "자바", "스프링", "채용", "공무원 시험", "토익",
+            "대학교", "입시", "수능", "병원", "약국", "코로나", "독감", "건강검진", "다이어트", "운동", "요가");
+
+    private static final List<String> ENGLISH_TERMS = List.of(
+            "search", "search engine", "elasticsearch", "autocomplete", "trending", "weather", "weather today",
+            "real estate", "apartment", "mortgage", "stock", "exchange rate", "samsung", "news", "breaking news",
+            "politics", "economy", "sports", "baseball", "soccer", "world cup", "movie", "drama", "music",
+            "restaurant", "seoul restaurant", "busan travel", "jeju island", "flight", "hotel booking", "camping",
+            "hiking", "bicycle", "electric car", "battery", "semiconductor", "artificial intelligence", "chatbot",
+            "developer", "java", "spring boot", "hiring", "exam", "university", "hospital", "pharmacy", "flu",
+            "health check", "diet", "workout", "yoga");
+
+    private static final List<String> KOREAN_FORBIDDEN = List.of(
+            "바보", "멍청이", "나쁜말", "욕설", "비속어", "광고", "도박", "불법", "사기", "스팸");
+
+    private static final List<String> ENGLISH_FORBIDDEN = List.of(
+            "idiot", "stupid", "casino", "gambling", "scam", "spam", "fraud", "illegal", "abuse", "hate");
+
+    private Corpus() {
+    }
+
+    public static List<String> terms(String language) {
+        return KOREAN.equals(language) ? KOREAN_TERMS : ENGLISH_TERMS;
+    }
+
+    /**
+     * {@code count} forbidden words: the hand-written ones followed by generated variants, so automaton size can
+     * be scaled.
+     */
+    public static List<String> forbiddenWords(String language, int count) {
+        List<String> base = KOREAN.equals(language) ? KOREAN_FORBIDDEN : ENGLISH_FORBIDDEN;
+        List<String> words = new ArrayList<>(count);
+        for (int i = 0; words.size() < count; i++) {
+            String word = base.get(i % base.size());
+            words.add(i < base.size() ? word : word + (i / base.size()));
+        }
+        return words;
+    }
+
+    /**
+     * Search keywords of one to five terms with a mix of advanced-search operators.
+     */
+    public static List<String> keywords(String language, int count, long seed) {
+        Random random = new Random(seed);
+        List<String> terms = terms(language);
+        List<String> keywords = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder keyword = new StringBuilder();
+            int words = 1 + random.nextInt(5);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) keyword.append(' ');
+                String term = terms.get(random.nextInt(terms.size()));
+                int operator = random.nextInt(10);
+                if (operator == 0) {
+                    keyword.append('-').append(term);
+                } else if (operator == 1) {
+                    keyword.append('+').append(term);
+                } else if (operator == 2) {
+                    keyword.append('"').append(term).append('"');
+                } else {
+                    keyword.append(term);
+                }
+            }
+            keywords.add(keyword.toString());
+        }
+        return keywords;
+    }
+
+    /**
+     * Hits whose {@code _source} carries a title, a body of roughly {@code bodyLength} characters and a category,
+     * each with a {@code <b>}-highlighted title and body fragment.
+     */
+    public static SearchHit[] hits(String language, int count, int bodyLength, long seed) {
+        Random random = new Random(seed);
+        List<String> terms = terms(language);
+        SearchHit[] hits = new SearchHit[count];
+        for (int i = 0; i < count; i++) {
+            String title = sentence(terms, random, 4);
+            String body = paragraph(terms, random, bodyLength);
+            String source = "{\"title\":\"" + title + "\",\"content\":\"" + body + "\",\"ctgry\":\"" + terms.get(i % terms.size())
+                    + "\",\"date\":\"2023.05." + (10 + i % 20) + "\"}";
+
+            SearchHit hit = new SearchHit(i, Integer.toString(i), new Text("_doc"), Collections.emptyMap(), Collections.emptyMap());
+            hit.sourceRef(new BytesArray(source.getBytes(StandardCharsets.UTF_8)));
+            Map<String, HighlightField> highlightFields = new HashMap<>();
+            highlightFields.put("title", new HighlightField("title", new Text[]{new Text(highlight(title, terms, random))}));
+            highlightFields.put("content", new HighlightField("content", new Text[]{new Text(highlight(body, terms, random))}));
+            hit.highlightFields(highlightFields);
+            hits[i] = hit;
+        }
+        return hits;
+    }
+
+    public static SearchHits searchHits(SearchHit[] hits) {
+        return new SearchHits(hits, new TotalHits(hits.length, TotalHits.Relation.EQUAL_TO), 1.0f);
+    }
+
+    public static SearchResponse searchResponse(SearchHit[] hits) {
+        InternalSearchResponse sections = new InternalSearchResponse(searchHits(hits), null, null, null, false, null, 1);
+        return new SearchResponse(sections, null, 1, 1, 0, 3, ShardSearchFailure.EMPTY_ARRAY, SearchResponse.Clusters.EMPTY);
+    }
+
+    public static MultiSearchResponse multiSearchResponse(SearchHit[]... hitsPerCategory) {
+        MultiSearchResponse.Item[] items = new MultiSearchResponse.Item[hitsPerCategory.length];
+        for (int i = 0; i < hitsPerCategory.length; i++) {
+            items[i] = new MultiSearchResponse.Item(searchResponse(hitsPerCategory[i]), null);
+        }
+        return new MultiSearchResponse(items, 5);
+    }
+
+    private static String sentence(List<String> terms, Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) sentence.append(' ');
+            sentence.append(terms.get(random.nextInt(terms.size())));
+        }
+        return sentence.toString();
+    }
+
+    private static String paragraph(List<String> terms, Random random, int length) {
+        StringBuilder paragraph = new StringBuilder(length + 16);
+        while (paragraph.length() < length) {
+            if (paragraph.length() > 0) paragraph.append(' ');
+            paragraph.append(terms.get(random.nextInt(terms.size())));
+        }
+        return paragraph.toString();
+    }
+
+    private static String highlight(String text, List<String> terms, Random random) {
+        String term = terms.get(random.nextInt(terms.size()));
+        String highlighted = text.replace(term, "<b>" + term + "</b>");
+        if (highlighted.equals(text)) {
+            int space = text.indexOf(' ');
+            String first = space < 0 ? text : text.substring(0, space);
+            highlighted = "<b>" + first + "</b>" + text.substring(first.length());
+        }
+        return highlighted;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.searchAPI.benchmark;
+
+import com.example.searchAPI.validator.ForbiddenWordValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forbidden-word check of one search keyword against word lists of different sizes, loaded through the
+ * validator's own file reload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ForbiddenWordBenchmark {
+
+    @Param({Corpus.KOREAN, Corpus.ENGLISH})
+    private String language;
+
+    @Param({"100", "10000"})
+    private int forbiddenWordCount;
+
+    private ForbiddenWordValidator validator;
+    private List<String> keywords;
+    private Path forbiddenWords;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        forbiddenWords = Files.createTempFile("forbidden_words", ".json");
+        new ObjectMapper().writeValue(forbiddenWords.toFile(), Corpus.forbiddenWords(language, forbiddenWordCount));
+
+        validator = new ForbiddenWordValidator();
+        ReflectionTestUtils.setField(validator, "filePath", forbiddenWords.toString());
+        validator.init();
+        keywords = Corpus.keywords(language, 1024, 42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(forbiddenWords);
+    }
+
+    @Benchmark
+    public boolean isForbiddenWord() {
+        return validator.isForbiddenWord(keywords.get(next++ & 1023));
+    }
+}
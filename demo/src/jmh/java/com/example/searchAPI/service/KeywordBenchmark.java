@@ -0,0 +1,67 @@
+package com.example.searchAPI.service;
+
+import com.example.searchAPI.benchmark.Corpus;
+import com.example.searchAPI.query.KeywordParser;
+import com.example.searchAPI.query.KeywordQuery;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword parsing and query compilation, one keyword per operation. Lives in the service package because
+ * {@link QueryTemplateCache#compile} is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KeywordBenchmark {
+
+    private static final List<String> DESIGNATED_FIELDS = List.of("title", "content");
+
+    @Param({Corpus.KOREAN, Corpus.ENGLISH})
+    private String language;
+
+    private List<String> keywords;
+    private List<KeywordQuery> parsed;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keywords = Corpus.keywords(language, 1024, 42);
+        parsed = new ArrayList<>(keywords.size());
+        for (String keyword : keywords) {
+            parsed.add(KeywordParser.parse(keyword));
+        }
+    }
+
+    @Benchmark
+    public KeywordQuery parse() {
+        return KeywordParser.parse(nextKeyword());
+    }
+
+    @Benchmark
+    public BoolQueryBuilder compileAllFields() {
+        return QueryTemplateCache.compile(parsed.get(next++ & 1023), Collections.emptyList()).toQuery();
+    }
+
+    @Benchmark
+    public BoolQueryBuilder compileDesignatedFields() {
+        return QueryTemplateCache.compile(parsed.get(next++ & 1023), DESIGNATED_FIELDS).toQuery();
+    }
+
+    private String nextKeyword() {
+        return keywords.get(next++ & 1023);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.searchAPI.service;
+
+import com.example.searchAPI.benchmark.Corpus;
+import com.example.searchAPI.model.SearchCriteria;
+import com.example.searchAPI.model.SearchDocument;
+import com.example.searchAPI.model.SearchResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.elasticsearch.action.search.MultiSearchResponse;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning Elasticsearch hits into a response: both result-processing methods of {@link SearchService}, the
+ * streaming JSON serialization of the result and the highlight ranking of {@link AutoCompleteService}.
+ * Lives in the service package because the measured methods are package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ResultProcessingBenchmark {
+
+    private static final List<String> CATEGORIES = List.of("news", "blog", "cafe");
+
+    @Param({Corpus.KOREAN, Corpus.ENGLISH})
+    private String language;
+
+    @Param({"10", "100", "1000"})
+    private int hitCount;
+
+    @Param({"200", "2000"})
+    private int bodyLength;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SearchHits searchHits;
+    private SearchResponse searchResponse;
+    private MultiSearchResponse multiSearchResponse;
+    private SearchCriteria criteria;
+    private SearchResult result;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SearchHit[] hits = Corpus.hits(language, hitCount, bodyLength, 42);
+        searchHits = Corpus.searchHits(hits);
+        searchResponse = Corpus.searchResponse(hits);
+
+        int perCategory = Math.max(1, hitCount / CATEGORIES.size());
+        multiSearchResponse = Corpus.multiSearchResponse(
+                Arrays.copyOfRange(hits, 0, Math.min(perCategory, hits.length)),
+                Arrays.copyOfRange(hits, Math.min(perCategory, hits.length), Math.min(2 * perCategory, hits.length)),
+                Arrays.copyOfRange(hits, Math.min(2 * perCategory, hits.length), hits.length));
+        criteria = new SearchCriteria(List.of("title"), null, "", perCategory, 1, "accuracy", CATEGORIES,
+                List.of(perCategory, perCategory, perCategory), null, null, null, null, null, null, null, null, null);
+        result = SearchResult.builder().totalHits((long) hitCount).documents(SearchService.processSearchResultsByAllCategories(criteria, false, searchHits)).build();
+    }
+
+    @Benchmark
+    public List<SearchDocument> processAllCategories() {
+        return SearchService.processSearchResultsByAllCategories(criteria, false, searchHits);
+    }
+
+    @Benchmark
+    public SearchResult processByCategory() {
+        return SearchService.processSearchResultsByCategory(criteria, false, multiSearchResponse.getResponses());
+    }
+
+    @Benchmark
+    public void serializeResult() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), result);
+    }
+
+    @Benchmark
+    public List<String> rankHighlights() {
+        return AutoCompleteService.rankHighlights(searchResponse, "title", 10);
+    }
+}
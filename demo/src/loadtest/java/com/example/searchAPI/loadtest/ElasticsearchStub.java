@@ -0,0 +1,500 @@
+package com.example.searchAPI.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Local HTTP stand-in for the Elasticsearch endpoints the application calls: {@code _search} (hits, highlights,
+ * terms/sum/composite aggregations, completion suggestions, scroll), {@code _msearch}, {@code _bulk}, document
+ * indexing, index creation, {@code _delete_by_query}, point-in-time open/close and cache {@code _stats}. Responses are canned,
+ * sized by {@code hits} and {@code bodyLength}, and delayed by {@code latencyMs} plus up to {@code jitterMs}.
+ * Point-in-time searches page through {@code pointInTimeDocs} documents by {@code search_after}. Like the 7.10 node it
+ * stands in for, the stub rejects sorts on metadata fields other than {@code _score}, {@code _doc} and {@code _id}.
+ * Each request is answered on its own thread, so latency does not limit the stub's concurrency.
+ */
+public class ElasticsearchStub implements Closeable {
+
+    static final List<String> WORDS = List.of(
+            "검색", "검색엔진", "엘라스틱서치", "자동완성", "인기검색어", "날씨", "부동산", "아파트", "주식", "환율",
+            "뉴스", "스포츠", "야구", "축구", "영화", "드라마", "음악", "맛집", "여행", "항공권", "호텔", "캠핑",
+            "search", "engine", "elastic", "weather", "stock", "news", "sports", "movie", "music", "travel",
+            "hotel", "camping", "java", "spring", "developer", "battery", "semiconductor", "chatbot");
+
+    private static final int SHARD_COPIES = 2;
+    private static final Set<String> SORTABLE_METADATA = Set.of("_score", "_doc", "_id");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMs;
+    private final long jitterMs;
+    private final int maxHits;
+    private final int bodyLength;
+    private final int autocompleteTerms;
+    private final int pointInTimeDocs;
+    private final Map<Integer, ArrayNode> cannedHits = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+    private final Set<String> requestCacheEntries = ConcurrentHashMap.newKeySet();
+    private final Set<String> queryCacheEntries = ConcurrentHashMap.newKeySet();
+    private final LongAdder requestCacheHits = new LongAdder();
+    private final LongAdder requestCacheMisses = new LongAdder();
+    private final LongAdder queryCacheHits = new LongAdder();
+    private final LongAdder queryCacheMisses = new LongAdder();
+
+    public ElasticsearchStub(long latencyMs, long jitterMs, int maxHits, int bodyLength, int autocompleteTerms, int pointInTimeDocs) throws IOException {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.maxHits = maxHits;
+        this.bodyLength = bodyLength;
+        this.autocompleteTerms = autocompleteTerms;
+        this.pointInTimeDocs = pointInTimeDocs;
+
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-es-stub-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public ElasticsearchStub start() {
+        server.start();
+        return this;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public Map<String, LongAdder> getRequestCounts() {
+        return requestCounts;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            URI uri = exchange.getRequestURI();
+            String path = uri.getPath();
+            String method = exchange.getRequestMethod();
+            byte[] body = readBody(exchange);
+            String endpoint = endpoint(method, path);
+            requestCounts.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+
+            delay();
+            JsonNode response;
+            switch (endpoint) {
+                case "search":
+                    response = search(index(path), body.length == 0 ? objectMapper.createObjectNode() : objectMapper.readTree(body),
+                            parameters(uri.getRawQuery()));
+                    break;
+                case "scroll":
+                    response = scroll(body);
+                    break;
+                case "msearch":
+                    response = msearch(body);
+                    break;
+                case "bulk":
+                    response = bulk(body);
+                    break;
+                case "index":
+                    response = indexed(index(path));
+                    break;
+                case "index_exists":
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                case "create_index":
+                    response = objectMapper.createObjectNode().put("acknowledged", true).put("shards_acknowledged", true).put("index", index(path));
+                    break;
+                case "delete_by_query":
+                    response = objectMapper.readTree("{\"took\":1,\"timed_out\":false,\"total\":0,\"deleted\":0,\"batches\":0,"
+                            + "\"version_conflicts\":0,\"noops\":0,\"retries\":{\"bulk\":0,\"search\":0},\"throttled_millis\":0,"
+                            + "\"requests_per_second\":-1.0,\"throttled_until_millis\":0,\"failures\":[]}");
+                    break;
+                case "stats":
+                    response = stats();
+                    break;
+                case "nodes":
+                    response = nodes();
+                    break;
+                case "open_pit":
+                    response = objectMapper.createObjectNode().put("id", "stub-pit");
+                    break;
+                case "clear":
+                    response = objectMapper.createObjectNode().put("succeeded", true).put("num_freed", 1);
+                    break;
+                default:
+                    response = objectMapper.readTree("{\"name\":\"stub\",\"cluster_name\":\"stub\",\"version\":{\"number\":\"7.10.2\"},"
+                            + "\"tagline\":\"You Know, for Search\"}");
+            }
+            byte[] bytes = objectMapper.writeValueAsBytes(response);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IllegalArgumentException e) {
+            error(exchange, 400, "illegal_argument_exception", e.getMessage());
+        } catch (Exception e) {
+            error(exchange, 500, "stub_exception", e.getClass().getSimpleName());
+        }
+    }
+
+    private void error(HttpExchange exchange, int status, String type, String reason) throws IOException {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.putObject("error").put("type", type).put("reason", reason);
+        response.put("status", status);
+        byte[] bytes = objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String endpoint(String method, String path) {
+        if (path.endsWith("/_search/scroll")) return "DELETE".equals(method) ? "clear" : "scroll";
+        if (path.endsWith("/_msearch")) return "msearch";
+        if (path.endsWith("/_search")) return "search";
+        if (path.contains("/_stats")) return "stats";
+        if (path.endsWith("/_bulk")) return "bulk";
+        if (path.endsWith("/_delete_by_query")) return "delete_by_query";
+        if (path.endsWith("/_pit")) return "DELETE".equals(method) ? "clear" : "open_pit";
+        if (path.contains("/_doc")) return "index";
+        if (path.startsWith("/_nodes")) return "nodes";
+        if (path.lastIndexOf('/') == 0 && path.length() > 1 && !path.startsWith("/_")) {
+            if ("HEAD".equals(method)) return "index_exists";
+            if ("PUT".equals(method)) return "create_index";
+        }
+        return "info";
+    }
+
+    private static String index(String path) {
+        String[] parts = path.split("/");
+        return parts.length > 1 && !parts[1].startsWith("_") ? parts[1] : "stub";
+    }
+
+    /**
+     * Reads the whole request before decompressing it: the client gzips bodies with chunked encoding, and a
+     * response sent before the last chunk is read confuses its connection state.
+     */
+    private byte[] readBody(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        if (!"gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            return body;
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private void delay() throws InterruptedException {
+        long millis = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    private ObjectNode search(String index, JsonNode request, Map<String, String> parameters) {
+        if (parameters.containsKey("scroll")) {
+            return scrollPage(0, request.path("size").asInt(1000));
+        }
+        checkSort(request.path("sort"));
+        lookUpCaches(index, request, parameters);
+
+        ObjectNode response = emptyResponse();
+        int size = Math.min(request.path("size").asInt(10), maxHits);
+        if (size > 0) {
+            ObjectNode hits = (ObjectNode) response.get("hits");
+            hits.put("max_score", 1.0);
+            hits.set("hits", hits(index, size));
+            ((ObjectNode) hits.get("total")).put("value", 10_000).put("relation", "gte");
+        }
+        if (request.has("pit")) {
+            response.put("pit_id", "stub-pit");
+            JsonNode searchAfter = request.path("search_after");
+            int from = searchAfter.size() > 0 ? searchAfter.get(searchAfter.size() - 1).asInt() + 1 : 0;
+            ((ObjectNode) response.get("hits")).set("hits", pointInTimeHits(index, from, Math.min(request.path("size").asInt(10), pointInTimeDocs - from)));
+        }
+
+        JsonNode aggregations = request.has("aggregations") ? request.get("aggregations") : request.get("aggs");
+        if (aggregations != null) {
+            response.set("aggregations", aggregations(aggregations));
+        }
+        if (request.has("suggest")) {
+            response.set("suggest", suggest(request.get("suggest")));
+        }
+        return response;
+    }
+
+    /**
+     * Imitates the shard caches of {@value #SHARD_COPIES} copies of a single shard: a request with a preference
+     * always reaches the same copy, one without it a random copy. Requests with {@code size} 0 or
+     * {@code request_cache=true} use the request cache, and every query is looked up in the query cache.
+     */
+    private void lookUpCaches(String index, JsonNode request, Map<String, String> parameters) {
+        String preference = parameters.get("preference");
+        int copy = preference != null ? Math.floorMod(preference.hashCode(), SHARD_COPIES) : ThreadLocalRandom.current().nextInt(SHARD_COPIES);
+        String requestCache = parameters.get("request_cache");
+        if ("true".equals(requestCache) || (requestCache == null && request.path("size").asInt(10) == 0)) {
+            (requestCacheEntries.add(copy + "/" + index + "/" + request) ? requestCacheMisses : requestCacheHits).increment();
+        }
+        if (request.has("query")) {
+            (queryCacheEntries.add(copy + "/" + index + "/" + request.get("query")) ? queryCacheMisses : queryCacheHits).increment();
+        }
+    }
+
+    private ObjectNode stats() {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.putObject("_shards").put("total", SHARD_COPIES).put("successful", SHARD_COPIES).put("failed", 0);
+        ObjectNode total = response.putObject("_all").putObject("total");
+        total.putObject("request_cache").put("memory_size_in_bytes", requestCacheEntries.size() * 1024L).put("evictions", 0)
+                .put("hit_count", requestCacheHits.sum()).put("miss_count", requestCacheMisses.sum());
+        total.putObject("query_cache").put("memory_size_in_bytes", queryCacheEntries.size() * 256L).put("evictions", 0)
+                .put("hit_count", queryCacheHits.sum()).put("miss_count", queryCacheMisses.sum())
+                .put("cache_size", queryCacheEntries.size()).put("cache_count", queryCacheEntries.size());
+        response.putObject("indices");
+        return response;
+    }
+
+    private static Map<String, String> parameters(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) return parameters;
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            String name = separator < 0 ? parameter : parameter.substring(0, separator);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    separator < 0 ? "" : URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private ObjectNode emptyResponse() {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("took", latencyMs).put("timed_out", false);
+        response.putObject("_shards").put("total", 1).put("successful", 1).put("skipped", 0).put("failed", 0);
+        ObjectNode hits = response.putObject("hits");
+        hits.putObject("total").put("value", 0).put("relation", "eq");
+        hits.putNull("max_score");
+        hits.putArray("hits");
+        return response;
+    }
+
+    private static void checkSort(JsonNode sort) {
+        for (JsonNode entry : sort) {
+            String field = entry.isTextual() ? entry.asText() : entry.fieldNames().hasNext() ? entry.fieldNames().next() : "";
+            if (field.startsWith("_") && !SORTABLE_METADATA.contains(field)) {
+                throw new IllegalArgumentException("No mapping found for [" + field + "] in order to sort on");
+            }
+        }
+    }
+
+    private ArrayNode hits(String index, int size) {
+        ArrayNode canned = cannedHits.computeIfAbsent(size, count -> {
+            ArrayNode hits = objectMapper.createArrayNode();
+            for (int i = 0; i < count; i++) {
+                String title = WORDS.get(i % WORDS.size()) + " " + WORDS.get((i * 7 + 3) % WORDS.size());
+                String content = text(i);
+                ObjectNode hit = hits.addObject();
+                hit.put("_index", index).put("_type", "_doc").put("_id", Integer.toString(i)).put("_score", 1.0);
+                hit.putObject("_source").put("title", title).put("content", content)
+                        .put("ctgry", WORDS.get(i % 4)).put("date", "2023.05." + (10 + i % 20));
+                ObjectNode highlight = hit.putObject("highlight");
+                highlight.putArray("title").add("<b>" + title + "</b>");
+                highlight.putArray("content").add("<b>" + content.substring(0, Math.min(20, content.length())) + "</b>"
+                        + content.substring(Math.min(20, content.length())));
+                hit.putArray("sort").add(1.0).add(i);
+            }
+            return hits;
+        });
+        return canned;
+    }
+
+    private ArrayNode pointInTimeHits(String index, int from, int size) {
+        ArrayNode canned = hits(index, maxHits);
+        ArrayNode hits = objectMapper.createArrayNode();
+        for (int i = 0; i < size; i++) {
+            ObjectNode hit = canned.get((from + i) % maxHits).deepCopy();
+            hit.put("_id", Integer.toString(from + i));
+            hit.putArray("sort").add(from + i);
+            hits.add(hit);
+        }
+        return hits;
+    }
+
+    private String text(int seed) {
+        StringBuilder text = new StringBuilder(bodyLength + 16);
+        for (int i = seed; text.length() < bodyLength; i += 7) {
+            if (text.length() > 0) text.append(' ');
+            text.append(WORDS.get(i % WORDS.size()));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Answers each aggregation by type with typed keys, as the high-level client requests them: terms get
+     * buckets (with their sub-aggregations), sum gets a value, max gets none as over an empty index and composite
+     * gets no buckets.
+     */
+    private ObjectNode aggregations(JsonNode requested) {
+        ObjectNode aggregations = objectMapper.createObjectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = requested.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> aggregation = fields.next();
+            JsonNode definition = aggregation.getValue();
+            JsonNode subAggregations = definition.has("aggregations") ? definition.get("aggregations") : definition.get("aggs");
+            if (definition.has("terms")) {
+                ObjectNode terms = aggregations.putObject("sterms#" + aggregation.getKey());
+                terms.put("doc_count_error_upper_bound", 0).put("sum_other_doc_count", 0);
+                ArrayNode buckets = terms.putArray("buckets");
+                int size = Math.min(definition.get("terms").path("size").asInt(10), WORDS.size());
+                for (int i = 0; i < size; i++) {
+                    ObjectNode bucket = buckets.addObject().put("key", WORDS.get(i)).put("doc_count", 1000 - i);
+                    if (subAggregations != null) {
+                        bucket.setAll(aggregations(subAggregations));
+                    }
+                }
+            } else if (definition.has("sum")) {
+                aggregations.putObject("sum#" + aggregation.getKey()).put("value", 100.0);
+            } else if (definition.has("max")) {
+                aggregations.putObject("max#" + aggregation.getKey()).putNull("value");
+            } else if (definition.has("composite")) {
+                aggregations.putObject("composite#" + aggregation.getKey()).putArray("buckets");
+            }
+        }
+        return aggregations;
+    }
+
+    private ObjectNode suggest(JsonNode requested) {
+        ObjectNode suggest = objectMapper.createObjectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = requested.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> suggestion = fields.next();
+            JsonNode completion = suggestion.getValue().get("completion");
+            if (completion == null) continue;
+
+            String prefix = suggestion.getValue().path("prefix").asText("");
+            ObjectNode entry = suggest.putArray("completion#" + suggestion.getKey()).addObject();
+            entry.put("text", prefix).put("offset", 0).put("length", prefix.length());
+            ArrayNode options = entry.putArray("options");
+            int size = Math.min(completion.path("size").asInt(5), WORDS.size());
+            for (int i = 0; i < size; i++) {
+                options.addObject().put("text", prefix + WORDS.get(i)).put("_index", "stub").put("_type", "_doc")
+                        .put("_id", Integer.toString(i)).put("_score", 1.0);
+            }
+        }
+        return suggest;
+    }
+
+    /**
+     * Pages through {@code autocompleteTerms} generated autocomplete terms; the scroll id carries the offset.
+     */
+    private ObjectNode scrollPage(int offset, int size) {
+        ObjectNode response = emptyResponse();
+        response.put("_scroll_id", "stub-scroll-" + (offset + size) + "-" + size);
+        ArrayNode hits = (ArrayNode) response.get("hits").get("hits");
+        for (int i = offset; i < Math.min(offset + size, autocompleteTerms); i++) {
+            String term = i < WORDS.size() ? WORDS.get(i) : WORDS.get(i % WORDS.size()) + " " + WORDS.get(i / WORDS.size() % WORDS.size()) + " " + i;
+            ObjectNode hit = hits.addObject();
+            hit.put("_index", "ngrams").put("_type", "_doc").put("_id", Integer.toString(i)).put("_score", 1.0);
+            hit.putObject("_source").put("ngram_text", term);
+        }
+        ((ObjectNode) response.get("hits").get("total")).put("value", autocompleteTerms);
+        return response;
+    }
+
+    private ObjectNode scroll(byte[] body) throws IOException {
+        String[] scrollId = objectMapper.readTree(body).path("scroll_id").asText("stub-scroll-0-1000").split("-");
+        return scrollPage(Integer.parseInt(scrollId[2]), Integer.parseInt(scrollId[3]));
+    }
+
+    private ObjectNode msearch(byte[] body) throws IOException {
+        ObjectNode response = objectMapper.createObjectNode().put("took", latencyMs);
+        ArrayNode responses = response.putArray("responses");
+        String[] lines = new String(body, StandardCharsets.UTF_8).split("\n");
+        for (int i = 0; i + 1 < lines.length; i += 2) {
+            JsonNode header = objectMapper.readTree(lines[i]);
+            JsonNode index = header.path("index");
+            String indexName = index.isArray() && index.size() > 0 ? index.get(0).asText() : index.asText("stub");
+            Map<String, String> parameters = new HashMap<>();
+            header.fields().forEachRemaining(field -> parameters.put(field.getKey(), field.getValue().asText()));
+            responses.add(search(indexName, objectMapper.readTree(lines[i + 1]), parameters).put("status", 200));
+        }
+        return response;
+    }
+
+    private ObjectNode bulk(byte[] body) throws IOException {
+        ObjectNode response = objectMapper.createObjectNode().put("took", latencyMs).put("errors", false);
+        ArrayNode items = response.putArray("items");
+        int id = 0;
+        for (String line : new String(body, StandardCharsets.UTF_8).split("\n")) {
+            if (line.isBlank()) continue;
+            JsonNode action = objectMapper.readTree(line);
+            if (!action.has("index") && !action.has("create")) continue;
+
+            String type = action.has("index") ? "index" : "create";
+            String index = action.get(type).path("_index").asText("stub");
+            items.addObject().set(type, indexed(index).put("_id", action.get(type).path("_id").asText(Integer.toString(id++))).put("status", 201));
+        }
+        return response;
+    }
+
+    /**
+     * A single node at the stub's own address, for the sniffer of the auto-configured Spring client.
+     */
+    private ObjectNode nodes() {
+        String address = "127.0.0.1:" + getPort();
+        ObjectNode response = objectMapper.createObjectNode();
+        response.putObject("_nodes").put("total", 1).put("successful", 1).put("failed", 0);
+        response.put("cluster_name", "stub");
+        ObjectNode node = response.putObject("nodes").putObject("stub-node");
+        node.put("name", "stub").put("host", "127.0.0.1").put("ip", "127.0.0.1").put("version", "7.10.2");
+        node.putArray("roles").add("master").add("data").add("ingest");
+        node.putObject("attributes");
+        ObjectNode http = node.putObject("http");
+        http.putArray("bound_address").add(address);
+        http.put("publish_address", address);
+        return response;
+    }
+
+    private ObjectNode indexed(String index) {
+        ObjectNode indexed = objectMapper.createObjectNode();
+        indexed.put("_index", index).put("_type", "_doc").put("_id", "stub").put("_version", 1).put("result", "created");
+        indexed.putObject("_shards").put("total", 1).put("successful", 1).put("failed", 0);
+        indexed.put("_seq_no", 0).put("_primary_term", 1);
+        return indexed;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.searchAPI.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Snapshot of garbage collection counters and per-thread allocated bytes. Threads named {@code loadtest-*} (the
+ * load generator, its HTTP client and the Elasticsearch stub) are left out so the difference between two snapshots
+ * approximates what the application allocated. Threads that exit between snapshots take their allocations with
+ * them, so the figure is a lower bound.
+ */
+public class JvmStats {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final long gcCount;
+    private final long gcTimeMillis;
+    private final Map<Long, Long> allocatedBytes;
+
+    private JvmStats(long gcCount, long gcTimeMillis, Map<Long, Long> allocatedBytes) {
+        this.gcCount = gcCount;
+        this.gcTimeMillis = gcTimeMillis;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    public static JvmStats snapshot() {
+        long count = 0;
+        long time = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+            time += Math.max(0, collector.getCollectionTime());
+        }
+
+        Map<Long, Long> allocated = new HashMap<>();
+        long[] ids = THREADS.getAllThreadIds();
+        ThreadInfo[] infos = THREADS.getThreadInfo(ids);
+        long[] bytes = THREADS.getThreadAllocatedBytes(ids);
+        for (int i = 0; i < ids.length; i++) {
+            if (infos[i] != null && bytes[i] >= 0 && !infos[i].getThreadName().startsWith("loadtest-")) {
+                allocated.put(ids[i], bytes[i]);
+            }
+        }
+        return new JvmStats(count, time, allocated);
+    }
+
+    public long gcCountSince(JvmStats start) {
+        return gcCount - start.gcCount;
+    }
+
+    public long gcTimeMillisSince(JvmStats start) {
+        return gcTimeMillis - start.gcTimeMillis;
+    }
+
+    public long allocatedBytesSince(JvmStats start) {
+        long total = 0;
+        for (Map.Entry<Long, Long> thread : allocatedBytes.entrySet()) {
+            total += thread.getValue() - start.allocatedBytes.getOrDefault(thread.getKey(), 0L);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.searchAPI.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Drives one endpoint either as a closed model (a fixed number of users, each sending its next request as soon
+ * as the previous one answers) or as an open model (requests started at a fixed rate regardless of how fast
+ * they answer). Open-model latency is measured from the time a request was scheduled to start, not when it was
+ * sent, so a stalled server shows up in the percentiles instead of silently lowering the offered load.
+ */
+public class LoadGenerator implements AutoCloseable {
+
+    public enum Model {
+        CLOSED("closed"),
+        OPEN("open");
+
+        private final String keyword;
+
+        Model(String keyword) {
+            this.keyword = keyword;
+        }
+
+        public String get() {
+            return keyword;
+        }
+
+        public static Model of(String keyword) {
+            for (Model model : values()) {
+                if (model.keyword.equalsIgnoreCase(keyword)) return model;
+            }
+            throw new IllegalArgumentException("Unknown load model: " + keyword);
+        }
+    }
+
+    private final AtomicInteger threads = new AtomicInteger();
+    private final ExecutorService clientExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "loadtest-client-" + threads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(clientExecutor)
+            .build();
+
+    /**
+     * Sends requests from {@code concurrency} workers for {@code duration}.
+     */
+    public Result closed(String name, Supplier<HttpRequest> requests, int concurrency, Duration duration) throws InterruptedException {
+        Result result = new Result(name);
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Thread> workers = new ArrayList<>(concurrency);
+        JvmStats before = JvmStats.snapshot();
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(requests.get(), HttpResponse.BodyHandlers.ofString());
+                        result.record(sent, response);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception e) {
+                        result.record(sent, null);
+                    }
+                }
+            }, "loadtest-worker-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        result.finish(start, before);
+        return result;
+    }
+
+    /**
+     * Starts {@code ratePerSecond} requests per second for {@code duration}. A request that would exceed
+     * {@code maxOutstanding} in-flight requests is not sent and counted as dropped.
+     */
+    public Result open(String name, Supplier<HttpRequest> requests, double ratePerSecond, int maxOutstanding, Duration duration) {
+        Result result = new Result(name);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long total = (long) (duration.toNanos() / intervalNanos);
+        AtomicInteger outstanding = new AtomicInteger();
+        JvmStats before = JvmStats.snapshot();
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (outstanding.incrementAndGet() > maxOutstanding) {
+                outstanding.decrementAndGet();
+                result.dropped.increment();
+                continue;
+            }
+            client.sendAsync(requests.get(), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, e) -> {
+                        outstanding.decrementAndGet();
+                        result.record(intended, response);
+                    });
+        }
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        result.finish(start, before);
+        return result;
+    }
+
+    @Override
+    public void close() {
+        clientExecutor.shutdownNow();
+    }
+
+    public static class Result {
+
+        private final String name;
+        private final Histogram latencyMicros = new ConcurrentHistogram(3);
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder responseChars = new LongAdder();
+        private final AtomicReference<String> firstError = new AtomicReference<>();
+        private long elapsedNanos;
+        private long allocatedBytes;
+        private long gcCount;
+        private long gcTimeMillis;
+
+        Result(String name) {
+            this.name = name;
+        }
+
+        /**
+         * The search endpoint reports failures as {@code {"error": ...}} with status 200, so the body is checked
+         * as well as the status.
+         */
+        void record(long startNanos, HttpResponse<String> response) {
+            latencyMicros.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos)));
+            requests.increment();
+            if (response == null || response.statusCode() >= 400 || response.body().startsWith("{\"error\"")) {
+                errors.increment();
+                firstError.compareAndSet(null, response == null ? "no response" : response.statusCode() + " " + response.body());
+            }
+            if (response != null) {
+                responseChars.add(response.body().length());
+            }
+        }
+
+        void finish(long startNanos, JvmStats before) {
+            elapsedNanos = System.nanoTime() - startNanos;
+            JvmStats after = JvmStats.snapshot();
+            allocatedBytes = after.allocatedBytesSince(before);
+            gcCount = after.gcCountSince(before);
+            gcTimeMillis = after.gcTimeMillisSince(before);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Histogram getLatencyMicros() {
+            return latencyMicros;
+        }
+
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public String getFirstError() {
+            return firstError.get();
+        }
+
+        public long getDropped() {
+            return dropped.sum();
+        }
+
+        public long getResponseChars() {
+            return responseChars.sum();
+        }
+
+        public double getThroughput() {
+            return requests.sum() / (elapsedNanos / 1e9);
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public long getGcCount() {
+            return gcCount;
+        }
+
+        public long getGcTimeMillis() {
+            return gcTimeMillis;
+        }
+    }
+}
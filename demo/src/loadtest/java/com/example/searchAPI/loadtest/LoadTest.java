@@ -0,0 +1,238 @@
+package com.example.searchAPI.loadtest;
+
+import com.example.searchAPI.ElasticsearchSearchApiApplication;
+import com.example.searchAPI.service.ShardCacheStats;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Starts the application against {@link ElasticsearchStub}, warms it up and drives each endpoint in turn with
+ * {@link LoadGenerator}, then prints throughput, latency percentiles, allocation and GC per endpoint. Latency
+ * distributions are also written as {@code <endpoint>.hgrm} for plotting.
+ *
+ * <p>Arguments are {@code key=value} harness options (see {@link #DEFAULTS}) and application properties, which
+ * have a dot in the key, e.g. {@code model=open rate=500 duration=60s search.cache.enabled=false}.
+ */
+public class LoadTest {
+
+    static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("model", "closed");
+        DEFAULTS.put("concurrency", "16");
+        DEFAULTS.put("rate", "200");
+        DEFAULTS.put("maxOutstanding", "1000");
+        DEFAULTS.put("warmup", "10s");
+        DEFAULTS.put("duration", "30s");
+        DEFAULTS.put("endpoints", "search,autocomplete,topsearched");
+        DEFAULTS.put("keywords", "500");
+        DEFAULTS.put("autocompleteMode", "");
+        DEFAULTS.put("topsearchedSource", "");
+        DEFAULTS.put("latencyMs", "5");
+        DEFAULTS.put("jitterMs", "5");
+        DEFAULTS.put("hits", "10");
+        DEFAULTS.put("bodyLength", "500");
+        DEFAULTS.put("autocompleteTerms", "5000");
+        DEFAULTS.put("exportDocs", "10000");
+        DEFAULTS.put("out", "target/loadtest");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                applicationArgs.add(arg);
+            } else if (arg.contains("=")) {
+                String key = arg.substring(0, arg.indexOf('='));
+                if (key.contains(".")) {
+                    applicationArgs.add("--" + arg);
+                    continue;
+                }
+                if (!DEFAULTS.containsKey(key)) throw new IllegalArgumentException("Unknown option: " + key + ", expected one of " + DEFAULTS.keySet());
+                options.put(key, arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+
+        Path out = Paths.get(options.get("out")).toAbsolutePath();
+        Files.createDirectories(out);
+        Path forbiddenWords = out.resolve("forbidden_words.json");
+        Files.writeString(forbiddenWords, "[\"바보\",\"욕설\",\"도박\",\"idiot\",\"scam\"]");
+
+        try (ElasticsearchStub stub = new ElasticsearchStub(Long.parseLong(options.get("latencyMs")), Long.parseLong(options.get("jitterMs")),
+                Integer.parseInt(options.get("hits")), Integer.parseInt(options.get("bodyLength")),
+                Integer.parseInt(options.get("autocompleteTerms")), Integer.parseInt(options.get("exportDocs"))).start()) {
+
+            List<String> properties = new ArrayList<>(List.of(
+                    "--server.port=0",
+                    "--search.hosts=127.0.0.1:" + stub.getPort(),
+                    "--spring.elasticsearch.uris=http://127.0.0.1:" + stub.getPort(),
+                    "--search.forbiddenPath=" + forbiddenWords,
+                    "--topsearched.spool.dir=" + out.resolve("spool"),
+                    "--topsearched.engine.checkpointPath=" + out.resolve("checkpoint/topsearched.bin"),
+                    "--logging.file.name=" + out.resolve("app.log"),
+                    "--logging.level.com.example=INFO"));
+            properties.addAll(applicationArgs);
+
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(ElasticsearchSearchApiApplication.class)
+                    .run(properties.toArray(new String[0]));
+            try (LoadGenerator generator = new LoadGenerator()) {
+                String baseUrl = "http://127.0.0.1:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+                List<String> keywords = keywords(Integer.parseInt(options.get("keywords")));
+
+                List<LoadGenerator.Result> results = new ArrayList<>();
+                for (String endpoint : options.get("endpoints").split(",")) {
+                    Supplier<HttpRequest> requests = requests(endpoint.trim(), baseUrl, keywords, options);
+                    run(generator, endpoint + "-warmup", requests, options, parse(options.get("warmup")));
+                    LoadGenerator.Result result = run(generator, endpoint.trim(), requests, options, parse(options.get("duration")));
+                    if (result != null) {
+                        results.add(result);
+                    }
+                }
+
+                ShardCacheStats shardCacheStats = context.getBean(ShardCacheStats.class);
+                shardCacheStats.refresh();
+                report(new PrintStream(System.out, true, StandardCharsets.UTF_8), options, stub, shardCacheStats, results);
+                try (PrintStream file = new PrintStream(Files.newOutputStream(out.resolve("report.txt")), true, StandardCharsets.UTF_8)) {
+                    report(file, options, stub, shardCacheStats, results);
+                }
+                for (LoadGenerator.Result result : results) {
+                    try (PrintStream file = new PrintStream(Files.newOutputStream(out.resolve(result.getName() + ".hgrm")), true, StandardCharsets.UTF_8)) {
+                        result.getLatencyMicros().outputPercentileDistribution(file, 1000.0);
+                    }
+                }
+            } finally {
+                context.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static LoadGenerator.Result run(LoadGenerator generator, String name, Supplier<HttpRequest> requests,
+                                            Map<String, String> options, Duration duration) throws InterruptedException {
+        // A zero duration skips the phase, e.g. warmup=0s.
+        if (duration.isZero()) return null;
+        if (LoadGenerator.Model.of(options.get("model")) == LoadGenerator.Model.OPEN) {
+            return generator.open(name, requests, Double.parseDouble(options.get("rate")),
+                    Integer.parseInt(options.get("maxOutstanding")), duration);
+        }
+        return generator.closed(name, requests, Integer.parseInt(options.get("concurrency")), duration);
+    }
+
+    private static Supplier<HttpRequest> requests(String endpoint, String baseUrl, List<String> keywords, Map<String, String> options) {
+        switch (endpoint) {
+            case "search":
+                return () -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/search/"))
+                        .header("Content-Type", "application/json")
+                        .method("GET", HttpRequest.BodyPublishers.ofString("{\"keyword\":\"" + random(keywords)
+                                + "\",\"categories\":[\"all\"],\"fieldDesignation\":[],\"maxDocument\":10,\"nowPage\":1,"
+                                + "\"sortOption\":\"accuracy\",\"period\":\"all\"}"))
+                        .build();
+            case "autocomplete":
+                return () -> {
+                    String word = random(ElasticsearchStub.WORDS);
+                    String prefix = word.substring(0, 1 + ThreadLocalRandom.current().nextInt(word.length()));
+                    return HttpRequest.newBuilder(URI.create(baseUrl + "/api/autocomplete/?option=prefix&mode=" + options.get("autocompleteMode")
+                            + "&keyword=" + URLEncoder.encode(prefix, StandardCharsets.UTF_8))).GET().build();
+                };
+            case "batch":
+                return () -> {
+                    String keyword = random(keywords);
+                    String common = "\"keyword\":\"" + keyword + "\",\"fieldDesignation\":[],\"maxDocument\":10,\"nowPage\":1,";
+                    return HttpRequest.newBuilder(URI.create(baseUrl + "/api/search/batch"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString("[{" + common + "\"categories\":[\"all\"],\"sortOption\":\"accuracy\",\"period\":\"all\"},"
+                                    + "{" + common + "\"categories\":[\"all\"],\"sortOption\":\"latest\",\"period\":\"week\"},"
+                                    + "{" + common + "\"categories\":[\"news\",\"sports\"],\"categoryMaxCounts\":[5,5],\"sortOption\":\"accuracy\",\"period\":\"all\"}]"))
+                            .build();
+                };
+            case "export":
+                return () -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/search/export"))
+                        .header("Content-Type", "application/json")
+                        .method("GET", HttpRequest.BodyPublishers.ofString("{\"keyword\":\"" + random(keywords)
+                                + "\",\"fieldDesignation\":[],\"period\":\"all\",\"includes\":[\"title\",\"date\"]}"))
+                        .build();
+            case "topsearched":
+                return () -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/topsearched/?period=all&N=10&source=" + options.get("topsearchedSource")))
+                        .GET().build();
+            default:
+                throw new IllegalArgumentException("Unknown endpoint: " + endpoint);
+        }
+    }
+
+    /**
+     * {@code count} distinct keywords of one to three terms, so the search cache hit ratio can be tuned.
+     */
+    private static List<String> keywords(int count) {
+        Random random = new Random(42);
+        List<String> keywords = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder keyword = new StringBuilder(random(ElasticsearchStub.WORDS, random));
+            for (int w = random.nextInt(3); w > 0; w--) {
+                keyword.append(' ').append(random(ElasticsearchStub.WORDS, random));
+            }
+            keywords.add(keyword.append(' ').append(i).toString());
+        }
+        return keywords;
+    }
+
+    private static String random(List<String> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    private static String random(List<String> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    static Duration parse(String duration) {
+        String value = duration.trim();
+        if (value.endsWith("ms")) return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        if (value.endsWith("s")) return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        if (value.endsWith("m")) return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static void report(PrintStream out, Map<String, String> options, ElasticsearchStub stub,
+                               ShardCacheStats shardCacheStats, List<LoadGenerator.Result> results) {
+        out.println("Load test " + options);
+        out.printf("%-12s %9s %7s %7s %10s %8s %8s %8s %8s %8s %10s %10s %5s %7s%n",
+                "endpoint", "requests", "errors", "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms",
+                "alloc MB", "KB/req", "gcs", "gc ms");
+        for (LoadGenerator.Result result : results) {
+            Histogram latency = result.getLatencyMicros();
+            long requests = Math.max(1, result.getRequests());
+            out.printf("%-12s %9d %7d %7d %10.1f %8.2f %8.2f %8.2f %8.2f %8.2f %10.1f %10.1f %5d %7d%n",
+                    result.getName(), result.getRequests(), result.getErrors(), result.getDropped(), result.getThroughput(),
+                    latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(90) / 1000.0,
+                    latency.getValueAtPercentile(99) / 1000.0, latency.getValueAtPercentile(99.9) / 1000.0,
+                    latency.getMaxValue() / 1000.0, result.getAllocatedBytes() / 1048576.0,
+                    result.getAllocatedBytes() / 1024.0 / requests, result.getGcCount(), result.getGcTimeMillis());
+        }
+        for (LoadGenerator.Result result : results) {
+            if (result.getFirstError() != null) {
+                out.println("First " + result.getName() + " error: " + result.getFirstError());
+            }
+        }
+        out.println("Elasticsearch stub requests " + stub.getRequestCounts());
+        out.println("Shard request cache " + shardCacheStats.getRequestCache() + ", query cache " + shardCacheStats.getQueryCache());
+    }
+}
@@ -1,29 +1,44 @@
 package com.example.searchAPI.config;
 
+import jakarta.annotation.PostConstruct;
 import org.apache.http.HttpHost;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.elasticsearch.client.NodeSelector;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestClientBuilder;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.sniff.ElasticsearchNodesSniffer;
+import org.elasticsearch.client.sniff.SniffOnFailureListener;
+import org.elasticsearch.client.sniff.Sniffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.stereotype.Component;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Builds the one Elasticsearch client shared by the application.
+ * Requests are balanced round-robin over {@code search.hosts}; a node that fails is marked dead and retried
+ * with the low-level client's exponential backoff, and the optional sniffer keeps the node list current.
+ */
 @Configuration
 public class ElasticConfiguration implements Closeable {
 
-    @Value("${search.host}")
-    private String host;
-
-    @Value("${search.port}")
-    private int port;
+    @Value("${search.hosts}")
+    private String hosts;
 
     @Value("${search.username}")
     private String user;
@@ -31,31 +46,160 @@ public class ElasticConfiguration implements Closeable {
     @Value("${search.protocol}")
     private String protocol;
 
+    @Value("${search.client.maxConnPerRoute:10}")
+    private int maxConnPerRoute;
+
+    @Value("${search.client.maxConnTotal:30}")
+    private int maxConnTotal;
+
+    @Value("${search.client.ioThreadCount:0}")
+    private int ioThreadCount;
+
+    @Value("${search.client.connectTimeoutMs:1000}")
+    private int connectTimeoutMs;
+
+    @Value("${search.client.socketTimeoutMs:30000}")
+    private int socketTimeoutMs;
+
+    @Value("${search.client.connectionRequestTimeoutMs:1000}")
+    private int connectionRequestTimeoutMs;
+
+    @Value("${search.client.keepAliveMs:60000}")
+    private long keepAliveMs;
+
+    @Value("${search.client.compression:true}")
+    private boolean compression;
+
+    @Value("${search.client.skipDedicatedMasters:true}")
+    private boolean skipDedicatedMasters;
+
+    @Value("${search.client.sniffer.enabled:false}")
+    private boolean snifferEnabled;
+
+    @Value("${search.client.sniffer.intervalMs:300000}")
+    private int sniffIntervalMs;
+
+    @Value("${search.client.sniffer.afterFailureDelayMs:60000}")
+    private int sniffAfterFailureDelayMs;
+
+    private final Logger logger = LoggerFactory.getLogger(ElasticConfiguration.class);
+
     private RestHighLevelClient elasticClient;
+    private PoolingNHttpClientConnectionManager connectionManager;
+    private Sniffer sniffer;
 
-//    public ElasticConfiguration(String host, int port, String user, String protocol) {
-//        elasticClient = createElasticsearchClient(host, port, user, protocol);
-//    }
+    @PostConstruct
+    public void init() throws IOReactorException {
+        elasticClient = createElasticsearchClient();
+    }
 
-    @Bean
+    @Bean(destroyMethod = "")
     public RestHighLevelClient getElasticClient() {
-        elasticClient = createElasticsearchClient(host, port, user, protocol);
         return elasticClient;
     }
 
-    private RestHighLevelClient createElasticsearchClient(String host, int port, String user, String protocol) {
-        RestClientBuilder restClientBuilder = RestClient.builder(new HttpHost(host, port, protocol));
-        if (user != null && !user.isEmpty()) {
-            final CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-            credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(user));
-            restClientBuilder.setHttpClientConfigCallback(httpClientBuilder ->
-                    httpClientBuilder.setDefaultCredentialsProvider(credentialsProvider));
+    private RestHighLevelClient createElasticsearchClient() throws IOReactorException {
+        HttpHost[] httpHosts = Arrays.stream(hosts.split(","))
+                .map(String::trim)
+                .filter(host -> !host.isEmpty())
+                .map(host -> HttpHost.create(host.contains("://") ? host : protocol + "://" + host))
+                .toArray(HttpHost[]::new);
+
+        IOReactorConfig.Builder ioReactorConfig = IOReactorConfig.custom().setSoKeepAlive(true);
+        if (ioThreadCount > 0) {
+            ioReactorConfig.setIoThreadCount(ioThreadCount);
+        }
+        connectionManager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(ioReactorConfig.build()));
+        connectionManager.setMaxTotal(maxConnTotal);
+        connectionManager.setDefaultMaxPerRoute(maxConnPerRoute);
+
+        CredentialsProvider credentialsProvider = createCredentialsProvider();
+        SniffOnFailureListener sniffOnFailureListener = snifferEnabled ? new SniffOnFailureListener() : null;
+        RestClientBuilder restClientBuilder = RestClient.builder(httpHosts)
+                .setCompressionEnabled(compression)
+                .setRequestConfigCallback(requestConfig -> requestConfig
+                        .setConnectTimeout(connectTimeoutMs)
+                        .setConnectionRequestTimeout(connectionRequestTimeoutMs)
+                        .setSocketTimeout(socketTimeoutMs))
+                .setHttpClientConfigCallback(httpClientBuilder -> {
+                    httpClientBuilder.setConnectionManager(connectionManager)
+                            .setKeepAliveStrategy((response, context) -> keepAliveMs);
+                    if (credentialsProvider != null) {
+                        httpClientBuilder.setDefaultCredentialsProvider(credentialsProvider);
+                    }
+                    return httpClientBuilder;
+                });
+        if (skipDedicatedMasters) {
+            restClientBuilder.setNodeSelector(NodeSelector.SKIP_DEDICATED_MASTERS);
+        }
+        if (sniffOnFailureListener != null) {
+            restClientBuilder.setFailureListener(sniffOnFailureListener);
+        }
+
+        RestHighLevelClient client = new RestHighLevelClient(restClientBuilder);
+        if (sniffOnFailureListener != null) {
+            sniffer = Sniffer.builder(client.getLowLevelClient())
+                    .setSniffIntervalMillis(sniffIntervalMs)
+                    .setSniffAfterFailureDelayMillis(sniffAfterFailureDelayMs)
+                    .setNodesSniffer(new ElasticsearchNodesSniffer(client.getLowLevelClient(),
+                            TimeUnit.SECONDS.toMillis(1),
+                            "https".equals(protocol) ? ElasticsearchNodesSniffer.Scheme.HTTPS : ElasticsearchNodesSniffer.Scheme.HTTP))
+                    .build();
+            sniffOnFailureListener.setSniffer(sniffer);
         }
-        return new RestHighLevelClient(restClientBuilder);
+
+        logger.info("Created Elasticsearch client for {} (pool {}/{} per route, sniffer {})",
+                Arrays.toString(httpHosts), maxConnTotal, maxConnPerRoute, snifferEnabled ? "on" : "off");
+        return client;
+    }
+
+    private CredentialsProvider createCredentialsProvider() {
+        if (user == null || user.isEmpty()) return null;
+
+        final CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+        credentialsProvider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(user));
+        return credentialsProvider;
+    }
+
+    public int getConnectTimeoutMs() {
+        return connectTimeoutMs;
+    }
+
+    /**
+     * How long a request waits for a pooled connection before it fails, so an exhausted pool cannot block a
+     * caller indefinitely.
+     */
+    public int getConnectionRequestTimeoutMs() {
+        return connectionRequestTimeoutMs;
+    }
+
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    public int getLeasedConnections() {
+        return connectionManager.getTotalStats().getLeased();
+    }
+
+    public int getPendingConnections() {
+        return connectionManager.getTotalStats().getPending();
+    }
+
+    public int getAvailableConnections() {
+        return connectionManager.getTotalStats().getAvailable();
+    }
+
+    public int getMaxConnections() {
+        return connectionManager.getTotalStats().getMax();
     }
 
     @Override
     public void close() throws IOException {
-        elasticClient.close();
+        if (sniffer != null) {
+            sniffer.close();
+        }
+        if (elasticClient != null) {
+            elasticClient.close();
+        }
     }
-}
\ No newline at end of file
+}
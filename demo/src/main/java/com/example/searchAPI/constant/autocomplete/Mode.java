@@ -0,0 +1,27 @@
+package com.example.searchAPI.constant.autocomplete;
+
+public enum Mode {
+    MEMORY("memory"),
+    AGGREGATION("aggregation"),
+    COMPLETION("completion"),
+    SEARCH("search");
+
+    private String keyword;
+
+    Mode(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String get() {
+        return keyword;
+    }
+
+    public static Mode of(String keyword) {
+        for (Mode mode : values()) {
+            if (mode.get().equalsIgnoreCase(keyword.trim())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown autocomplete mode: " + keyword);
+    }
+}
@@ -3,7 +3,8 @@ package com.example.searchAPI.constant.autocomplete;
 public enum Option {
     PREFIX("prefix"),
     SUFFIX("suffix"),
-    CONTAINS("contains");
+    CONTAINS("contains"),
+    CHOSUNG("chosung");
 
     private String keyword;
 
@@ -14,4 +15,14 @@ public enum Option {
     public String get() {
         return keyword;
     }
+
+    public static Option of(String keyword) {
+        if (keyword == null || keyword.isBlank()) return null;
+        for (Option option : values()) {
+            if (option.get().equals(keyword.trim())) {
+                return option;
+            }
+        }
+        throw new IllegalArgumentException("정확한 option을 입력하세요.");
+    }
 }
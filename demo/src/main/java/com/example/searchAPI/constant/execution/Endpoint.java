@@ -0,0 +1,18 @@
+package com.example.searchAPI.constant.execution;
+
+public enum Endpoint {
+    SEARCH("search"),
+    AUTOCOMPLETE("autocomplete"),
+    TOPSEARCHED("topsearched"),
+    EXPORT("export");
+
+    private String keyword;
+
+    Endpoint(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String get() {
+        return keyword;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.searchAPI.constant.execution;
+
+public enum ExecutionMode {
+    BLOCKING("blocking"),
+    ASYNC("async");
+
+    private String keyword;
+
+    ExecutionMode(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String get() {
+        return keyword;
+    }
+
+    public static ExecutionMode of(String keyword) {
+        for (ExecutionMode mode : values()) {
+            if (mode.get().equalsIgnoreCase(keyword.trim())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown execution mode: " + keyword);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.searchAPI.constant.search;
+
+public enum Highlighter {
+    UNIFIED("unified"),
+    PLAIN("plain"),
+    FVH("fvh"),
+    NONE("none");
+
+    private String keyword;
+
+    Highlighter(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String get() {
+        return keyword;
+    }
+
+    public static Highlighter of(String keyword) {
+        for (Highlighter highlighter : values()) {
+            if (highlighter.get().equalsIgnoreCase(keyword.trim())) {
+                return highlighter;
+            }
+        }
+        throw new IllegalArgumentException("올바른 highlight 옵션을 입력하세요. ('unified', 'plain', 'fvh', 'none')");
+    }
+}
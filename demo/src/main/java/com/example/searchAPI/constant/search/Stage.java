@@ -0,0 +1,24 @@
+package com.example.searchAPI.constant.search;
+
+public enum Stage {
+    FORBIDDEN_WORD("forbidden_word"),
+    CACHE_LOOKUP("cache_lookup"),
+    SEARCH_LOG("search_log"),
+    QUERY_BUILD("query_build"),
+    DATE_RANGE("date_range"),
+    SORT("sort"),
+    HIGHLIGHT("highlight"),
+    PAGING("paging"),
+    ELASTICSEARCH("elasticsearch"),
+    RESULT_PROCESSING("result_processing");
+
+    private String keyword;
+
+    Stage(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String get() {
+        return keyword;
+    }
+}
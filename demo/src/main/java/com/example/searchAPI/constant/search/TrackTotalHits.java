@@ -0,0 +1,26 @@
+package com.example.searchAPI.constant.search;
+
+public enum TrackTotalHits {
+    EXACT("exact"),
+    CAPPED("capped"),
+    OFF("off");
+
+    private String keyword;
+
+    TrackTotalHits(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String get() {
+        return keyword;
+    }
+
+    public static TrackTotalHits of(String keyword) {
+        for (TrackTotalHits trackTotalHits : values()) {
+            if (trackTotalHits.get().equalsIgnoreCase(keyword.trim())) {
+                return trackTotalHits;
+            }
+        }
+        throw new IllegalArgumentException("올바른 trackTotalHits 옵션을 입력하세요. ('exact', 'capped', 'off')");
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.searchAPI.constant.searchlog;
+
+public enum Backpressure {
+    DROP("drop"),
+    BLOCK("block"),
+    SAMPLE("sample");
+
+    private String keyword;
+
+    Backpressure(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String get() {
+        return keyword;
+    }
+
+    public static Backpressure of(String keyword) {
+        for (Backpressure backpressure : values()) {
+            if (backpressure.get().equalsIgnoreCase(keyword.trim())) {
+                return backpressure;
+            }
+        }
+        throw new IllegalArgumentException("Unknown backpressure mode: " + keyword);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.searchAPI.constant.topsearched;
+
+public enum Source {
+    MEMORY("memory"),
+    ELASTICSEARCH("elasticsearch");
+
+    private String keyword;
+
+    Source(String keyword) {
+        this.keyword = keyword;
+    }
+
+    public String get() {
+        return keyword;
+    }
+
+    public static Source of(String keyword) {
+        if (keyword == null || keyword.isBlank()) return MEMORY;
+        for (Source source : values()) {
+            if (source.get().equalsIgnoreCase(keyword.trim())) {
+                return source;
+            }
+        }
+        throw new IllegalArgumentException("Unknown top searched source: " + keyword);
+    }
+}
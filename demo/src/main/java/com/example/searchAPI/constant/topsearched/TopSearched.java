@@ -7,6 +7,8 @@ public enum TopSearched {
 
     DELIMETER("~"),
 
+    SEARCHED_AT("searchedAt"),
+
     DATE_PATTERN("^\\d{4}\\.(0[1-9]|1[012])\\.(0[1-9]|[12][0-9]|3[01])$");
 
     private String keyword;
@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/autocomplete")
@@ -17,8 +18,10 @@ public class AutoCompleteController {
     private AutoCompleteService autoCompleteService;
 
     @GetMapping("/")
-    public List<String> autoComplete(@RequestParam String keyword,
-                                     @RequestParam String option) {
-        return autoCompleteService.autoComplete(keyword, option);
+    public CompletableFuture<List<String>> autoComplete(@RequestParam String keyword,
+                                                        @RequestParam String option,
+                                                        @RequestParam(required = false) String mode,
+                                                        @RequestParam(required = false) Integer size) {
+        return autoCompleteService.autoComplete(keyword, option, mode, size);
     }
 }
\ No newline at end of file
@@ -1,14 +1,24 @@
 package com.example.searchAPI.controller;
 
+import com.example.searchAPI.model.BatchSearchResult;
 import com.example.searchAPI.model.SearchCriteria;
+import com.example.searchAPI.model.SearchResult;
+import com.example.searchAPI.service.SearchResultCache;
 import com.example.searchAPI.service.SearchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/search")
@@ -17,8 +27,36 @@ public class ElasticsearchController {
     @Autowired
     private SearchService searchService;
 
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     @GetMapping("/")
-    public List<String> search(@RequestBody SearchCriteria criteria) {
+    public CompletableFuture<SearchResult> search(@RequestBody SearchCriteria criteria) {
         return searchService.search(criteria);
     }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestBody SearchCriteria criteria) {
+        StreamingResponseBody body;
+        try {
+            body = searchService.export(criteria);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(outputStream -> objectMapper.writeValue(outputStream, SearchResult.error(e.getMessage())));
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @PostMapping("/batch")
+    public CompletableFuture<BatchSearchResult> batch(@RequestBody List<SearchCriteria> criteria) {
+        return searchService.batch(criteria);
+    }
+
+    @DeleteMapping("/cache")
+    public void invalidateCache() {
+        searchResultCache.invalidateAll();
+    }
 }
@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/topsearched")
@@ -17,8 +18,9 @@ public class TopSearchedController {
     private TopSearchedService topSearchedService;
 
     @GetMapping("/")
-    public List<TopSearchedService.TopSearchedData> topSearched(@RequestParam (required = false) String period,
-                                                                @RequestParam (required = false) Integer N) {
-        return topSearchedService.topSearched(period, N);
+    public CompletableFuture<List<TopSearchedService.TopSearchedData>> topSearched(@RequestParam (required = false) String period,
+                                                                                   @RequestParam (required = false) Integer N,
+                                                                                   @RequestParam (required = false) String source) {
+        return topSearchedService.topSearched(period, N, source);
     }
 }
\ No newline at end of file
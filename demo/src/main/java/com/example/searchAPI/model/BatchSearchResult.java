@@ -0,0 +1,34 @@
+package com.example.searchAPI.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchSearchResult {
+    private final Long took;
+    private final List<Item> results;
+    private final String error;
+
+    /**
+     * The result of one search of the batch, in request order, with the milliseconds it took here and, when it
+     * reached Elasticsearch, there.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Item {
+        private final SearchResult result;
+        private final long took;
+        private final Long elasticsearchTook;
+    }
+
+    public static BatchSearchResult error(String message) {
+        return BatchSearchResult.builder().error(message).build();
+    }
+}
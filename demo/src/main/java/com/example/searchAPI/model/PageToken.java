@@ -0,0 +1,16 @@
+package com.example.searchAPI.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageToken {
+    private String pointInTimeId;
+    private String criteriaHash;
+    private List<Object> searchAfter;
+}
@@ -16,4 +16,13 @@ public class SearchCriteria {
     private final String sortOption;
     private final List<String> categories;
     private final List<Integer> categoryMaxCounts;
+    private final Boolean cursor;
+    private final String pageToken;
+    private final String trackTotalHits;
+    private final String highlight;
+    private final Integer highlightFragments;
+    private final Integer highlightFragmentSize;
+    private final List<String> includes;
+    private final List<String> excludes;
+    private final List<String> docValueFields;
 }
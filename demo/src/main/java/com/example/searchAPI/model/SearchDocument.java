@@ -0,0 +1,46 @@
+package com.example.searchAPI.model;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.document.DocumentField;
+import org.elasticsearch.search.fetch.subphase.highlight.HighlightField;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A search hit whose {@code _source} is kept as the raw bytes returned by Elasticsearch.
+ * {@link SearchDocumentSerializer} streams those bytes straight into the response, so no intermediate map or string
+ * is built per hit. Requested {@code docvalue_fields} follow the source fields, and the highlighted fragments follow
+ * in a {@code highlight} object; only whole-value highlights ({@code spliceHighlights}) replace the source values.
+ */
+@Getter
+@RequiredArgsConstructor
+@JsonSerialize(using = SearchDocumentSerializer.class)
+public class SearchDocument {
+
+    static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final BytesReference source;
+    private final Map<String, HighlightField> highlightFields;
+    private final Collection<String> highlightableFields;
+    private final Map<String, DocumentField> documentFields;
+    private final boolean spliceHighlights;
+
+    public HighlightField getHighlight(String field) {
+        if (highlightableFields != null && !highlightableFields.contains(field)) return null;
+        HighlightField highlightField = highlightFields.get(field);
+        return highlightField != null && highlightField.fragments().length > 0 ? highlightField : null;
+    }
+
+    static JsonParser createParser(BytesReference source) throws IOException {
+        BytesRef bytes = source.toBytesRef();
+        return JSON_FACTORY.createParser(bytes.bytes, bytes.offset, bytes.length);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.searchAPI.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.elasticsearch.common.document.DocumentField;
+import org.elasticsearch.common.text.Text;
+import org.elasticsearch.search.fetch.subphase.highlight.HighlightField;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+public class SearchDocumentSerializer extends StdSerializer<SearchDocument> {
+
+    public SearchDocumentSerializer() {
+        super(SearchDocument.class);
+    }
+
+    private static final String HIGHLIGHT = "highlight";
+
+    @Override
+    public void serialize(SearchDocument document, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject();
+        Set<String> written = document.getDocumentFields().isEmpty() ? null : new HashSet<>();
+        if (document.getSource() != null) {
+            try (JsonParser parser = SearchDocument.createParser(document.getSource())) {
+                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.getCurrentName();
+                        parser.nextToken();
+                        generator.writeFieldName(field);
+                        if (written != null) written.add(field);
+
+                        HighlightField highlightField = document.isSpliceHighlights() ? document.getHighlight(field) : null;
+                        if (highlightField == null) {
+                            generator.copyCurrentStructure(parser);
+                        } else {
+                            writeFragments(generator, highlightField.fragments());
+                            parser.skipChildren();
+                        }
+                    }
+                }
+            }
+        }
+        if (written != null) {
+            for (DocumentField documentField : document.getDocumentFields().values()) {
+                if (written.contains(documentField.getName())) continue;
+                generator.writeFieldName(documentField.getName());
+                provider.defaultSerializeValue(documentField.getValues().size() == 1 ? documentField.getValue() : documentField.getValues(), generator);
+            }
+        }
+        if (!document.isSpliceHighlights()) {
+            writeHighlights(generator, document);
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeHighlights(JsonGenerator generator, SearchDocument document) throws IOException {
+        boolean started = false;
+        for (String field : document.getHighlightFields().keySet()) {
+            HighlightField highlightField = document.getHighlight(field);
+            if (highlightField == null) continue;
+            if (!started) {
+                generator.writeObjectFieldStart(HIGHLIGHT);
+                started = true;
+            }
+            generator.writeArrayFieldStart(field);
+            for (Text fragment : highlightField.fragments()) {
+                generator.writeString(fragment.string());
+            }
+            generator.writeEndArray();
+        }
+        if (started) {
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeFragments(JsonGenerator generator, Text[] fragments) throws IOException {
+        if (fragments.length == 1) {
+            generator.writeString(fragments[0].string());
+            return;
+        }
+        StringBuilder joined = new StringBuilder();
+        for (Text fragment : fragments) {
+            if (joined.length() > 0) joined.append(' ');
+            joined.append(fragment.string());
+        }
+        generator.writeString(joined.toString());
+    }
+}
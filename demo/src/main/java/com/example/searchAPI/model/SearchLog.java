@@ -0,0 +1,12 @@
+package com.example.searchAPI.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class SearchLog {
+    private final String keyword;
+    private final String searchedDate;
+    private final long searchedAt;
+}
@@ -0,0 +1,26 @@
+package com.example.searchAPI.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchResult {
+    private final Long totalHits;
+    private final String totalHitsRelation;
+    private final String nextPageToken;
+    private final List<SearchDocument> documents;
+    private final Map<String, List<SearchDocument>> categories;
+    private final Map<String, Long> facets;
+    private final List<String> highlightedFields;
+    private final String error;
+
+    public static SearchResult error(String message) {
+        return SearchResult.builder().error(message).build();
+    }
+}
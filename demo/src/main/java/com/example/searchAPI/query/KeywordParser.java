@@ -0,0 +1,89 @@
+package com.example.searchAPI.query;
+
+import com.example.searchAPI.constant.search.AdvancedSearch;
+import com.example.searchAPI.query.KeywordQuery.Clause;
+import com.example.searchAPI.query.KeywordQuery.Occur;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass parser of the advanced search syntax. {@code +} and {@code -} at the start of a word make the text
+ * up to the next operator or quote a required or excluded clause, text outside any operator is optional, and
+ * {@code "..."} is a required phrase, or an excluded one after {@code -}. Operators inside a word ({@code e-mail})
+ * are plain text, an unmatched quote runs to the end of the input and whitespace is collapsed, so the parser
+ * never fails and never produces empty clauses.
+ */
+public final class KeywordParser {
+
+    private static final char INCLUDE = AdvancedSearch.INCLUDE.get().charAt(0);
+    private static final char EXCLUDE = AdvancedSearch.EXCLUDE.get().charAt(0);
+    private static final char EQUAL = AdvancedSearch.EQUAL.get().charAt(0);
+
+    private KeywordParser() {
+    }
+
+    public static KeywordQuery parse(String keyword) {
+        List<Clause> clauses = new ArrayList<>();
+        if (keyword == null) return new KeywordQuery(clauses);
+
+        StringBuilder text = new StringBuilder();
+        Occur occur = Occur.SHOULD;
+        boolean wordStart = true;
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            if (c == EQUAL) {
+                Occur phraseOccur = Occur.MUST;
+                if (isBlank(text)) {
+                    if (occur != Occur.SHOULD) phraseOccur = occur;
+                } else {
+                    add(clauses, occur, text, false);
+                }
+                int end = keyword.indexOf(EQUAL, i + 1);
+                if (end < 0) end = keyword.length();
+                add(clauses, phraseOccur, text.append(keyword, i + 1, end), true);
+                i = end;
+                occur = Occur.SHOULD;
+                wordStart = true;
+            } else if (wordStart && (c == INCLUDE || c == EXCLUDE)) {
+                add(clauses, occur, text, false);
+                occur = c == INCLUDE ? Occur.MUST : Occur.MUST_NOT;
+                wordStart = false;
+            } else {
+                text.append(c);
+                wordStart = Character.isWhitespace(c);
+            }
+        }
+        add(clauses, occur, text, false);
+        return new KeywordQuery(clauses);
+    }
+
+    /**
+     * Adds {@code text} with its whitespace collapsed as a clause unless it is blank, then clears it.
+     */
+    private static void add(List<Clause> clauses, Occur occur, StringBuilder text, boolean phrase) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = normalized.length() > 0;
+            } else {
+                if (space) normalized.append(' ');
+                normalized.append(c);
+                space = false;
+            }
+        }
+        text.setLength(0);
+        if (normalized.length() > 0) {
+            clauses.add(new Clause(occur, normalized.toString(), phrase));
+        }
+    }
+
+    private static boolean isBlank(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isWhitespace(text.charAt(i))) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.searchAPI.query;
+
+import com.example.searchAPI.constant.search.AdvancedSearch;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parsed search keyword: the clauses written with the {@link AdvancedSearch} syntax, in input order. Instances are
+ * immutable and are built by {@link KeywordParser}.
+ */
+@Getter
+@EqualsAndHashCode(of = "clauses")
+public final class KeywordQuery {
+
+    public enum Occur {
+        SHOULD(""),
+        MUST(AdvancedSearch.INCLUDE.get()),
+        MUST_NOT(AdvancedSearch.EXCLUDE.get());
+
+        private final String keyword;
+
+        Occur(String keyword) {
+            this.keyword = keyword;
+        }
+
+        public String get() {
+            return keyword;
+        }
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    public static final class Clause {
+        private final Occur occur;
+        private final String text;
+        private final boolean phrase;
+
+        @Override
+        public String toString() {
+            return occur.get() + (phrase ? AdvancedSearch.EQUAL.get() + text + AdvancedSearch.EQUAL.get() : text);
+        }
+    }
+
+    private final List<Clause> clauses;
+
+    /**
+     * Clauses in their written form, sorted: queries that differ only in clause order or spacing share it.
+     */
+    private final List<String> normalizedClauses;
+
+    /**
+     * Texts of the clauses the user searched for, excluded ones left out, as recorded in the search log.
+     */
+    private final List<String> searchTerms;
+
+    KeywordQuery(List<Clause> clauses) {
+        this.clauses = Collections.unmodifiableList(clauses);
+
+        List<String> normalized = new ArrayList<>(clauses.size());
+        List<String> terms = new ArrayList<>(clauses.size());
+        for (Clause clause : clauses) {
+            normalized.add(clause.toString());
+            if (clause.getOccur() != Occur.MUST_NOT) {
+                terms.add(clause.getText());
+            }
+        }
+        Collections.sort(normalized);
+        this.normalizedClauses = Collections.unmodifiableList(normalized);
+        this.searchTerms = Collections.unmodifiableList(terms);
+    }
+
+    public boolean isEmpty() {
+        return clauses.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.join(" ", normalizedClauses);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.searchAPI.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Ring buffer of the most recent successful call latencies, used to derive the hedging delay.
+ */
+public class LatencyWindow {
+
+    private final long[] samples;
+    private int index;
+    private int count;
+
+    public LatencyWindow(int size) {
+        this.samples = new long[size];
+    }
+
+    public synchronized void record(long nanos) {
+        samples[index] = nanos;
+        index = (index + 1) % samples.length;
+        if (count < samples.length) count++;
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    public long percentile(double quantile) {
+        long[] sorted;
+        synchronized (this) {
+            if (count == 0) return 0;
+            sorted = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.searchAPI.resilience;
+
+/**
+ * Thrown without calling Elasticsearch when the concurrency limit is reached or the circuit is open.
+ */
+public class RejectedCallException extends RuntimeException {
+
+    public RejectedCallException(String message) {
+        super(message);
+    }
+}
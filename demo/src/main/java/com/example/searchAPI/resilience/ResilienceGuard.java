@@ -0,0 +1,177 @@
+package com.example.searchAPI.resilience;
+
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.client.ResponseException;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Per-endpoint protection for Elasticsearch calls: a circuit breaker and an adaptive concurrency limit in front
+ * of every attempt, and optionally a hedged second attempt when the first has not answered within the recent
+ * p95 latency. Hedging only helps when the call is asynchronous; a blocking call has finished before the
+ * hedge timer could fire.
+ */
+public class ResilienceGuard {
+
+    private static final String LIMIT_MESSAGE = "요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.";
+    private static final String CIRCUIT_OPEN_MESSAGE = "Elasticsearch 장애로 요청을 일시적으로 차단했습니다. 잠시 후 다시 시도해주세요.";
+    private static final int MIN_HEDGE_SAMPLES = 20;
+
+    private enum Outcome {
+        SUCCESS, IGNORED, FAILURE, OVERLOAD
+    }
+
+    private final String name;
+    private final AdaptiveLimiter limiter;
+    private final CircuitBreaker circuitBreaker;
+    private final LatencyWindow latencies;
+    private final boolean hedgeEnabled;
+    private final long minHedgeDelayNanos;
+    private final ScheduledExecutorService scheduler;
+
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    public ResilienceGuard(String name, AdaptiveLimiter limiter, CircuitBreaker circuitBreaker, LatencyWindow latencies,
+                           boolean hedgeEnabled, long minHedgeDelayNanos, ScheduledExecutorService scheduler) {
+        this.name = name;
+        this.limiter = limiter;
+        this.circuitBreaker = circuitBreaker;
+        this.latencies = latencies;
+        this.hedgeEnabled = hedgeEnabled;
+        this.minHedgeDelayNanos = minHedgeDelayNanos;
+        this.scheduler = scheduler;
+    }
+
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> call) {
+        if (!hedgeEnabled) {
+            return attempt(call);
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        AtomicBoolean answered = new AtomicBoolean();
+        CompletableFuture<T> primary = attempt(call);
+        primary.whenComplete(settle(result, outstanding, answered, false));
+        if (primary.isDone()) return result;
+
+        ScheduledFuture<?> timer = scheduler.schedule(() -> {
+            if (result.isDone()) return;
+            outstanding.incrementAndGet();
+            hedged.increment();
+            attempt(call).whenComplete(settle(result, outstanding, answered, true));
+        }, getHedgeDelayNanos(), TimeUnit.NANOSECONDS);
+        result.whenComplete((response, error) -> timer.cancel(false));
+        return result;
+    }
+
+    public long getHedgeDelayNanos() {
+        if (latencies.getCount() < MIN_HEDGE_SAMPLES) return minHedgeDelayNanos;
+        return Math.max(minHedgeDelayNanos, latencies.percentile(0.95));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public AdaptiveLimiter getLimiter() {
+        return limiter;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public long getHedgedCount() {
+        return hedged.sum();
+    }
+
+    public long getHedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    /**
+     * The first successful attempt answers; a hedge's win is counted before the caller can see the answer.
+     */
+    private <T> BiConsumer<T, Throwable> settle(CompletableFuture<T> result, AtomicInteger outstanding, AtomicBoolean answered, boolean hedge) {
+        return (response, error) -> {
+            if (error == null) {
+                if (answered.compareAndSet(false, true)) {
+                    if (hedge) {
+                        hedgeWins.increment();
+                    }
+                    result.complete(response);
+                }
+            } else if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(error);
+            }
+        };
+    }
+
+    private <T> CompletableFuture<T> attempt(Supplier<CompletableFuture<T>> call) {
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        if (permit == null) {
+            return CompletableFuture.failedFuture(new RejectedCallException(CIRCUIT_OPEN_MESSAGE));
+        }
+        if (!limiter.tryAcquire()) {
+            circuitBreaker.cancel(permit);
+            return CompletableFuture.failedFuture(new RejectedCallException(LIMIT_MESSAGE));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((response, error) -> {
+            long elapsed = System.nanoTime() - start;
+            Outcome outcome = classify(error);
+            limiter.release(elapsed, outcome == Outcome.OVERLOAD);
+            if (outcome == Outcome.FAILURE || outcome == Outcome.OVERLOAD) {
+                circuitBreaker.onFailure(permit);
+            } else {
+                circuitBreaker.onSuccess(permit);
+            }
+            if (outcome == Outcome.SUCCESS) {
+                latencies.record(elapsed);
+            }
+        });
+    }
+
+    /**
+     * Timeouts and 429 responses mean Elasticsearch is overloaded, other 5xx and I/O errors mean it is failing;
+     * anything else (a bad query, a missing index) says nothing about its health.
+     */
+    private static Outcome classify(Throwable error) {
+        if (error == null) return Outcome.SUCCESS;
+
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        int status = -1;
+        if (error instanceof ElasticsearchStatusException) {
+            status = ((ElasticsearchStatusException) error).status().getStatus();
+        } else if (error instanceof ResponseException) {
+            status = ((ResponseException) error).getResponse().getStatusLine().getStatusCode();
+        }
+
+        if (error instanceof TimeoutException || status == 429) return Outcome.OVERLOAD;
+        if (status >= 500) return Outcome.FAILURE;
+        if (status < 0 && error instanceof IOException) return Outcome.FAILURE;
+        return Outcome.IGNORED;
+    }
+}
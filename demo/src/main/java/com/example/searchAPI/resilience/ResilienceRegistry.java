@@ -0,0 +1,88 @@
+package com.example.searchAPI.resilience;
+
+import com.example.searchAPI.constant.execution.Endpoint;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds one {@link ResilienceGuard} per endpoint, configured from {@code search.resilience.<endpoint>.*}.
+ */
+@Component
+public class ResilienceRegistry {
+
+    private static final String PREFIX = "search.resilience.";
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${search.resilience.enabled:true}")
+    private boolean enabled;
+
+    private final Map<Endpoint, ResilienceGuard> guards = new EnumMap<>(Endpoint.class);
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "es-hedge-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (Endpoint endpoint : Endpoint.values()) {
+            guards.put(endpoint, create(endpoint));
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ResilienceGuard get(Endpoint endpoint) {
+        return guards.get(endpoint);
+    }
+
+    public Collection<ResilienceGuard> getGuards() {
+        return Collections.unmodifiableCollection(guards.values());
+    }
+
+    private ResilienceGuard create(Endpoint endpoint) {
+        String prefix = PREFIX + endpoint.get() + ".";
+        AdaptiveLimiter limiter = new AdaptiveLimiter(
+                property(prefix + "limit.initial", Integer.class, 20),
+                property(prefix + "limit.min", Integer.class, 2),
+                property(prefix + "limit.max", Integer.class, 200),
+                property(prefix + "limit.backoffRatio", Double.class, 0.9),
+                TimeUnit.MILLISECONDS.toNanos(property(prefix + "limit.latencyThresholdMs", Long.class, 1000L)));
+        CircuitBreaker circuitBreaker = new CircuitBreaker(
+                property(prefix + "breaker.windowSize", Integer.class, 50),
+                property(prefix + "breaker.minimumCalls", Integer.class, 20),
+                property(prefix + "breaker.failureRateThreshold", Double.class, 0.5),
+                TimeUnit.MILLISECONDS.toNanos(property(prefix + "breaker.openDurationMs", Long.class, 10000L)),
+                property(prefix + "breaker.halfOpenProbes", Integer.class, 3));
+        return new ResilienceGuard(endpoint.get(), limiter, circuitBreaker, new LatencyWindow(512),
+                property(prefix + "hedge.enabled", Boolean.class, false),
+                TimeUnit.MILLISECONDS.toNanos(property(prefix + "hedge.minDelayMs", Long.class, 50L)),
+                scheduler);
+    }
+
+    private <T> T property(String key, Class<T> type, T defaultValue) {
+        return environment.getProperty(key, type, defaultValue);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.searchAPI.service;
+
+import com.example.searchAPI.config.ElasticConfiguration;
+import com.example.searchAPI.constant.autocomplete.Option;
+import jakarta.annotation.PostConstruct;
+import org.elasticsearch.action.search.ClearScrollRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchScrollRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves autocomplete from an {@link AutoCompleteIndex} built from every value of {@code autocomplete.field}.
+ * The index is rebuilt in the background and swapped in atomically, so lookups never wait on a build.
+ */
+@Component
+public class AutoCompleteEngine {
+
+    @Autowired
+    private ElasticConfiguration elasticConfiguration;
+
+    @Value("${autocomplete.index}")
+    private String autocompleteIndex;
+
+    @Value("${autocomplete.field}")
+    private String field;
+
+    @Value("${autocomplete.engine.enabled:true}")
+    private boolean enabled;
+
+    @Value("${autocomplete.engine.scrollSize:1000}")
+    private int scrollSize;
+
+    private final Logger logger = LoggerFactory.getLogger(AutoCompleteEngine.class);
+    private final AtomicReference<AutoCompleteIndex> index = new AtomicReference<>();
+    private final AtomicBoolean building = new AtomicBoolean();
+
+    private volatile long lastBuildTimeMillis;
+    private volatile long lastBuiltAt;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) return;
+
+        Thread builder = new Thread(this::rebuild, "autocomplete-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    @Scheduled(fixedDelayString = "${autocomplete.engine.rebuildIntervalMs:600000}", initialDelayString = "${autocomplete.engine.rebuildIntervalMs:600000}")
+    public void rebuild() {
+        if (!enabled || !building.compareAndSet(false, true)) return;
+        try {
+            long start = System.nanoTime();
+            AutoCompleteIndex built = AutoCompleteIndex.build(loadTermWeights());
+            lastBuildTimeMillis = (System.nanoTime() - start) / 1_000_000;
+            lastBuiltAt = System.currentTimeMillis();
+
+            index.set(built);
+            logger.info("Built autocomplete index from {}: {} terms, ~{} KB in {} ms",
+                    autocompleteIndex, built.getTermCount(), built.getEstimatedBytes() / 1024, lastBuildTimeMillis);
+        } catch (Exception e) {
+            logger.error("Failed to build autocomplete index from {}: {}", autocompleteIndex, e.getMessage());
+        } finally {
+            building.set(false);
+        }
+    }
+
+    public boolean isReady() {
+        return index.get() != null;
+    }
+
+    public List<String> suggest(String keyword, Option option, int size) {
+        AutoCompleteIndex current = index.get();
+        switch (option) {
+            case SUFFIX:
+                return current.suffix(keyword, size);
+            case CONTAINS:
+                return current.contains(keyword, size);
+            case CHOSUNG:
+                return current.chosung(keyword, size);
+            default:
+                return current.prefix(keyword, size);
+        }
+    }
+
+    public int getTermCount() {
+        AutoCompleteIndex current = index.get();
+        return current == null ? 0 : current.getTermCount();
+    }
+
+    public long getEstimatedBytes() {
+        AutoCompleteIndex current = index.get();
+        return current == null ? 0 : current.getEstimatedBytes();
+    }
+
+    public long getLastBuildTimeMillis() {
+        return lastBuildTimeMillis;
+    }
+
+    public long getLastBuiltAt() {
+        return lastBuiltAt;
+    }
+
+    private Map<String, Long> loadTermWeights() throws IOException {
+        RestHighLevelClient client = elasticConfiguration.getElasticClient();
+        TimeValue keepAlive = TimeValue.timeValueMinutes(1);
+        SearchRequest searchRequest = new SearchRequest(autocompleteIndex)
+                .scroll(keepAlive)
+                .source(new SearchSourceBuilder()
+                        .fetchSource(field, null)
+                        .sort("_doc", SortOrder.ASC)
+                        .size(scrollSize));
+
+        Map<String, Long> termWeights = new HashMap<>();
+        SearchResponse response = client.search(searchRequest, RequestOptions.DEFAULT);
+        String scrollId = response.getScrollId();
+        try {
+            while (response.getHits().getHits().length > 0) {
+                for (SearchHit hit : response.getHits().getHits()) {
+                    Object value = hit.getSourceAsMap().get(field);
+                    if (value instanceof Collection) {
+                        for (Object element : (Collection<?>) value) {
+                            termWeights.merge(String.valueOf(element), 1L, Long::sum);
+                        }
+                    } else if (value != null) {
+                        termWeights.merge(String.valueOf(value), 1L, Long::sum);
+                    }
+                }
+                response = client.scroll(new SearchScrollRequest(scrollId).scroll(keepAlive), RequestOptions.DEFAULT);
+                scrollId = response.getScrollId();
+            }
+        } finally {
+            ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
+            clearScrollRequest.addScrollId(scrollId);
+            client.clearScroll(clearScrollRequest, RequestOptions.DEFAULT);
+        }
+        return termWeights;
+    }
+}
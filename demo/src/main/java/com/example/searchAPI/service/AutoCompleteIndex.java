@@ -0,0 +1,345 @@
+package com.example.searchAPI.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Immutable in-memory autocomplete index.
+ * PREFIX is answered from keys sorted in natural order, SUFFIX from the reversed keys sorted the same way;
+ * both ranges are ranked with a max-weight segment tree, so the top N of a range costs O(N log n)
+ * however many terms share the prefix. CHOSUNG probes chosung and jamo-decomposed keys the same way.
+ * CONTAINS uses unigram/bigram postings and verifies each candidate.
+ */
+public class AutoCompleteIndex {
+
+    private static final long OBJECT_BYTES = 16;
+    private static final long STRING_BYTES = 40;
+
+    private final String[] terms;
+    private final String[] keys;
+    private final long[] weights;
+    private final RangeMax prefixRanking;
+
+    private final DerivedKeys suffixKeys;
+    private final DerivedKeys chosungKeys;
+    private final DerivedKeys jamoKeys;
+
+    private final Map<Long, int[]> postings;
+
+    private AutoCompleteIndex(String[] terms, String[] keys, long[] weights) {
+        this.terms = terms;
+        this.keys = keys;
+        this.weights = weights;
+        this.prefixRanking = new RangeMax(keys.length, id -> weights[id]);
+
+        this.suffixKeys = new DerivedKeys(keys, key -> new StringBuilder(key).reverse().toString());
+        this.chosungKeys = new DerivedKeys(keys, Hangul::chosung);
+        this.jamoKeys = new DerivedKeys(keys, Hangul::jamo);
+
+        long[][] keyGrams = new long[keys.length][];
+        Map<Long, int[]> counts = new HashMap<>();
+        for (int id = 0; id < keys.length; id++) {
+            keyGrams[id] = grams(keys[id]);
+            for (long gram : keyGrams[id]) {
+                counts.computeIfAbsent(gram, g -> new int[1])[0]++;
+            }
+        }
+        this.postings = new HashMap<>(counts.size() * 2);
+        for (Map.Entry<Long, int[]> entry : counts.entrySet()) {
+            postings.put(entry.getKey(), new int[entry.getValue()[0]]);
+            entry.getValue()[0] = 0;
+        }
+        for (int id = 0; id < keys.length; id++) {
+            for (long gram : keyGrams[id]) {
+                postings.get(gram)[counts.get(gram)[0]++] = id;
+            }
+        }
+    }
+
+    /**
+     * Builds an index from term weights. Terms that only differ in case or surrounding blanks are merged;
+     * the heaviest spelling is kept for display.
+     */
+    public static AutoCompleteIndex build(Map<String, Long> termWeights) {
+        Map<String, String> displayByKey = new HashMap<>();
+        Map<String, Long> weightByKey = new HashMap<>();
+        Map<String, Long> displayWeight = new HashMap<>();
+        for (Map.Entry<String, Long> entry : termWeights.entrySet()) {
+            String key = normalize(entry.getKey());
+            if (key.isEmpty()) continue;
+
+            weightByKey.merge(key, entry.getValue(), Long::sum);
+            if (entry.getValue() > displayWeight.getOrDefault(key, -1L)) {
+                displayByKey.put(key, entry.getKey().trim());
+                displayWeight.put(key, entry.getValue());
+            }
+        }
+
+        String[] keys = weightByKey.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        String[] terms = new String[keys.length];
+        long[] weights = new long[keys.length];
+        for (int id = 0; id < keys.length; id++) {
+            terms[id] = displayByKey.get(keys[id]);
+            weights[id] = weightByKey.get(keys[id]);
+        }
+        return new AutoCompleteIndex(terms, keys, weights);
+    }
+
+    public List<String> prefix(String keyword, int size) {
+        String key = normalize(keyword);
+        int from = lowerBound(keys, key);
+        int to = prefixEnd(keys, key, from);
+        List<String> suggestions = new ArrayList<>(Math.min(size, to - from));
+        for (int id : prefixRanking.top(from, to, size)) {
+            suggestions.add(terms[id]);
+        }
+        return suggestions;
+    }
+
+    public List<String> suffix(String keyword, int size) {
+        return suffixKeys.prefix(new StringBuilder(normalize(keyword)).reverse().toString(), size);
+    }
+
+    /**
+     * Korean initial-consonant / partial-syllable lookup: "ㄱㅅ" matches 검색 through the chosung keys, and a
+     * partially typed syllable such as "검ㅅ" or "거" matches through the jamo-decomposed keys. Either way it is
+     * a single prefix probe.
+     */
+    public List<String> chosung(String keyword, int size) {
+        String key = normalize(keyword);
+        if (Hangul.isChosungOnly(key)) {
+            return chosungKeys.prefix(key, size);
+        }
+        return jamoKeys.prefix(Hangul.jamo(key), size);
+    }
+
+    public List<String> contains(String keyword, int size) {
+        String key = normalize(keyword);
+        if (key.isEmpty()) return prefix(key, size);
+
+        int[] candidates = null;
+        for (long gram : grams(key)) {
+            int[] posting = postings.get(gram);
+            if (posting == null) return Collections.emptyList();
+            if (candidates == null || posting.length < candidates.length) {
+                candidates = posting;
+            }
+        }
+
+        PriorityQueue<Integer> best = new PriorityQueue<>(size + 1, (a, b) -> compare(a, b));
+        for (int id : candidates) {
+            if (key.length() > 2 && !keys[id].contains(key)) continue;
+            best.offer(id);
+            if (best.size() > size) {
+                best.poll();
+            }
+        }
+
+        String[] suggestions = new String[best.size()];
+        for (int i = suggestions.length - 1; i >= 0; i--) {
+            suggestions[i] = terms[best.poll()];
+        }
+        return Arrays.asList(suggestions);
+    }
+
+    public int getTermCount() {
+        return keys.length;
+    }
+
+    /**
+     * Rough heap footprint of the index: strings, arrays and postings, ignoring alignment.
+     */
+    public long getEstimatedBytes() {
+        long bytes = 0;
+        for (int id = 0; id < keys.length; id++) {
+            bytes += 2 * STRING_BYTES + 2L * (terms[id].length() + keys[id].length());
+        }
+        bytes += 2 * (OBJECT_BYTES + 8L * keys.length);
+        bytes += OBJECT_BYTES + 8L * weights.length + prefixRanking.getEstimatedBytes();
+        bytes += suffixKeys.getEstimatedBytes() + chosungKeys.getEstimatedBytes() + jamoKeys.getEstimatedBytes();
+        for (int[] posting : postings.values()) {
+            bytes += 4 * OBJECT_BYTES + 4L * posting.length;
+        }
+        return bytes;
+    }
+
+    private int compare(int a, int b) {
+        int byWeight = Long.compare(weights[a], weights[b]);
+        return byWeight != 0 ? byWeight : Integer.compare(b, a);
+    }
+
+    private static String normalize(String keyword) {
+        return keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct unigrams and bigrams of a key, packed as longs; a single-character key only has its unigram.
+     */
+    private static long[] grams(String key) {
+        if (key.length() == 1) return new long[]{key.charAt(0)};
+
+        long[] grams = new long[2 * key.length() - 1];
+        for (int i = 0; i < key.length(); i++) {
+            grams[2 * i] = key.charAt(i);
+            if (i + 1 < key.length()) {
+                grams[2 * i + 1] = 1L << 32 | (long) key.charAt(i) << 16 | key.charAt(i + 1);
+            }
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static int lowerBound(String[] sorted, String key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int prefixEnd(String[] sorted, String prefix, int from) {
+        int low = from;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].startsWith(prefix)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Keys derived from the normalized keys (reversed, chosung, jamo), sorted with their term ids and ranked by
+     * the term weights.
+     */
+    private class DerivedKeys {
+        private final String[] sortedKeys;
+        private final int[] ids;
+        private final RangeMax ranking;
+
+        DerivedKeys(String[] keys, Function<String, String> derive) {
+            Integer[] order = new Integer[keys.length];
+            String[] derived = new String[keys.length];
+            for (int id = 0; id < keys.length; id++) {
+                order[id] = id;
+                derived[id] = derive.apply(keys[id]);
+            }
+            Arrays.sort(order, (a, b) -> derived[a].compareTo(derived[b]));
+            this.sortedKeys = new String[keys.length];
+            this.ids = new int[keys.length];
+            for (int i = 0; i < order.length; i++) {
+                ids[i] = order[i];
+                sortedKeys[i] = derived[order[i]];
+            }
+            this.ranking = new RangeMax(keys.length, position -> weights[ids[position]]);
+        }
+
+        List<String> prefix(String key, int size) {
+            int from = lowerBound(sortedKeys, key);
+            int to = prefixEnd(sortedKeys, key, from);
+            List<String> suggestions = new ArrayList<>(Math.min(size, to - from));
+            for (int position : ranking.top(from, to, size)) {
+                suggestions.add(terms[ids[position]]);
+            }
+            return suggestions;
+        }
+
+        long getEstimatedBytes() {
+            long bytes = 2 * OBJECT_BYTES + 8L * sortedKeys.length + 4L * ids.length + ranking.getEstimatedBytes();
+            for (String key : sortedKeys) {
+                bytes += STRING_BYTES + 2L * key.length();
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Bottom-up segment tree holding the position of the heaviest entry of each node.
+     */
+    private static class RangeMax {
+        private final int size;
+        private final int[] tree;
+        private final IntToLongFunction weight;
+
+        RangeMax(int size, IntToLongFunction weight) {
+            this.size = size;
+            this.tree = new int[2 * Math.max(size, 1)];
+            this.weight = weight;
+            for (int i = 0; i < size; i++) {
+                tree[size + i] = i;
+            }
+            for (int node = size - 1; node > 0; node--) {
+                tree[node] = heavier(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        int max(int from, int to) {
+            int best = -1;
+            for (int low = from + size, high = to + size; low < high; low >>= 1, high >>= 1) {
+                if ((low & 1) == 1) best = heavier(best, tree[low++]);
+                if ((high & 1) == 1) best = heavier(best, tree[--high]);
+            }
+            return best;
+        }
+
+        /**
+         * Positions of the {@code count} heaviest entries in [from, to), heaviest first.
+         */
+        List<Integer> top(int from, int to, int count) {
+            List<Integer> result = new ArrayList<>(Math.min(count, Math.max(to - from, 0)));
+            if (from >= to || count <= 0) return result;
+
+            PriorityQueue<int[]> ranges = new PriorityQueue<>((a, b) -> heavier(a[2], b[2]) == a[2] ? -1 : 1);
+            ranges.offer(new int[]{from, to, max(from, to)});
+            while (!ranges.isEmpty() && result.size() < count) {
+                int[] range = ranges.poll();
+                int position = range[2];
+                result.add(position);
+                if (range[0] < position) {
+                    ranges.offer(new int[]{range[0], position, max(range[0], position)});
+                }
+                if (position + 1 < range[1]) {
+                    ranges.offer(new int[]{position + 1, range[1], max(position + 1, range[1])});
+                }
+            }
+            return result;
+        }
+
+        long getEstimatedBytes() {
+            return OBJECT_BYTES + 4L * tree.length;
+        }
+
+        private int heavier(int a, int b) {
+            if (a < 0) return b;
+            if (b < 0) return a;
+            long weightA = weight.applyAsLong(a);
+            long weightB = weight.applyAsLong(b);
+            if (weightA != weightB) return weightA > weightB ? a : b;
+            return Math.min(a, b);
+        }
+    }
+}
@@ -1,25 +1,40 @@
 package com.example.searchAPI.service;
 
-import com.example.searchAPI.config.ElasticConfiguration;
+import com.example.searchAPI.constant.autocomplete.Mode;
 import com.example.searchAPI.constant.autocomplete.Option;
+import com.example.searchAPI.constant.execution.Endpoint;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
-import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.common.text.Text;
+import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.BucketOrder;
+import org.elasticsearch.search.aggregations.bucket.terms.IncludeExclude;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.elasticsearch.search.aggregations.metrics.Sum;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.fetch.subphase.highlight.HighlightBuilder;
 import org.elasticsearch.search.fetch.subphase.highlight.HighlightField;
+import org.elasticsearch.search.suggest.SuggestBuilder;
+import org.elasticsearch.search.suggest.SuggestBuilders;
+import org.elasticsearch.search.suggest.completion.CompletionSuggestion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -27,8 +42,26 @@ import java.util.stream.Collectors;
 @Service
 public class AutoCompleteService {
 
+    private static final Pattern HIGHLIGHT_PATTERN = Pattern.compile("<b>(.*?)</b>");
+    private static final String SUGGESTIONS_NAME = "suggestions";
+    private static final String POPULARITY_NAME = "popularity";
+    private static final String POPULARITY_COUNT_NAME = "search_count";
+    private static final String REGEX_RESERVED = ".?+*|{}[]()\"\\#@&<>~";
+
+    @Autowired
+    private ElasticsearchExecutor elasticsearchExecutor;
+
+    @Autowired
+    private AutoCompleteEngine autoCompleteEngine;
+
     @Autowired
-    private ElasticConfiguration elasticConfiguration;
+    private SearchLogRollupService searchLogRollupService;
+
+    @Autowired
+    private QueryShaper queryShaper;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
 
     @Value("${autocomplete.index}")
     private String autocompleteIndex;
@@ -36,46 +69,253 @@ public class AutoCompleteService {
     @Value("${autocomplete.field}")
     private String field;
 
-    public List<String> autoComplete(String keyword, String option) {
+    @Value("${autocomplete.aggregation.field}")
+    private String aggregationField;
+
+    @Value("${autocomplete.completion.field}")
+    private String completionField;
+
+    @Value("${search.execution.timeoutMs.autocomplete:1000}")
+    private long timeoutMs;
+
+    @Value("${autocomplete.mode:memory}")
+    private String mode;
+
+    @Value("${autocomplete.size:10}")
+    private int size;
+
+    @Value("${autocomplete.maxSize:100}")
+    private int maxSize;
+
+    @Value("${autocomplete.popularity.enabled:false}")
+    private boolean popularityEnabled;
+
+    @Value("${autocomplete.popularity.weight:1.0}")
+    private double popularityWeight;
+
+    @Value("${autocomplete.popularity.days:30}")
+    private int popularityDays;
+
+    @Value("${autocomplete.popularity.candidateFactor:5}")
+    private int candidateFactor;
+
+    @Value("${topsearched.field.keyword}")
+    private String searchLogKeywordField;
+
+    public CompletableFuture<List<String>> autoComplete(String keyword, String option, String requestedMode, Integer requestedSize) {
+        try {
+            Option parsedOption = Option.of(option);
+            Mode parsedMode = Mode.of(requestedMode == null || requestedMode.isBlank() ? mode : requestedMode);
+            int limit = requestedSize == null ? size : Math.max(1, Math.min(requestedSize, maxSize));
+
+            if (parsedOption == Option.CHOSUNG) {
+                if (!autoCompleteEngine.isReady()) {
+                    throw new IllegalArgumentException("초성 자동완성 색인을 준비 중입니다. 잠시 후 다시 시도해주세요.");
+                }
+                return CompletableFuture.completedFuture(autoCompleteEngine.suggest(keyword, parsedOption, limit));
+            }
+
+            if (parsedOption != null && parsedMode == Mode.MEMORY && autoCompleteEngine.isReady()) {
+                return CompletableFuture.completedFuture(autoCompleteEngine.suggest(keyword, parsedOption, limit));
+            }
+            return requestCoalescer.execute(Endpoint.AUTOCOMPLETE, Arrays.asList(keyword, parsedOption, parsedMode, limit),
+                            () -> fromElasticsearch(keyword, option, parsedOption, parsedMode, limit))
+                    .exceptionally(e -> fallback(e, keyword, parsedOption, limit));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(Collections.singletonList(e.getMessage()));
+        }
+    }
+
+    private CompletableFuture<List<String>> fromElasticsearch(String keyword, String option, Option parsedOption, Mode parsedMode, int limit) {
+        if (parsedOption != null) {
+            switch (parsedMode) {
+                case COMPLETION:
+                    if (parsedOption == Option.PREFIX) {
+                        return complete(keyword, limit);
+                    }
+                    return aggregate(keyword, parsedOption, limit);
+                case AGGREGATION:
+                    return aggregate(keyword, parsedOption, limit);
+                default:
+                    break;
+            }
+        }
+
+        SearchRequest searchRequest = new SearchRequest(autocompleteIndex);
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+
+        HighlightBuilder highlightBuilder = new HighlightBuilder();
+        highlightBuilder.field(field);
+        highlightBuilder.preTags("<b>");
+        highlightBuilder.postTags("</b>");
+        highlightBuilder.numOfFragments(0);
+        searchSourceBuilder.highlighter(highlightBuilder);
+        searchSourceBuilder.size(100);
+
+
+        getQueryBuilder(keyword, option, searchSourceBuilder, field);
+
+        searchRequest.source(searchSourceBuilder);
+        return elasticsearchExecutor.search(Endpoint.AUTOCOMPLETE, searchRequest, timeoutMs)
+                .thenApply(response -> rankHighlights(response, field, limit))
+                .exceptionally(e -> fallback(e, keyword, parsedOption, limit));
+    }
+
+    /**
+     * Ranks candidate terms by document frequency from a terms aggregation, without fetching or highlighting hits.
+     * With popularity enabled the search-log counts for the same terms are fetched in the same msearch and added
+     * to the score.
+     */
+    private CompletableFuture<List<String>> aggregate(String keyword, Option option, int limit) {
+        String include = includePattern(keyword, option);
+        int candidates = popularityEnabled ? limit * candidateFactor : limit;
+
+        SearchSourceBuilder suggestionSource = new SearchSourceBuilder().size(0);
+        getQueryBuilder(keyword, option.get(), suggestionSource, field);
+        suggestionSource.aggregation(AggregationBuilders.terms(SUGGESTIONS_NAME)
+                .field(aggregationField)
+                .includeExclude(new IncludeExclude(include, null))
+                .size(candidates));
+        SearchRequest suggestionRequest = queryShaper.aggregationOnly(new SearchRequest(autocompleteIndex).source(suggestionSource),
+                Arrays.asList(keyword, option, candidates));
+
+        if (!popularityEnabled) {
+            return elasticsearchExecutor.search(Endpoint.AUTOCOMPLETE, suggestionRequest, timeoutMs)
+                    .thenApply(response -> rankTerms(response, Collections.emptyMap(), limit))
+                    .exceptionally(e -> fallback(e, keyword, option, limit));
+        }
+
+        QueryBuilder popularityRange;
         try {
-            SearchRequest searchRequest = new SearchRequest(autocompleteIndex);
-            SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
-
-            HighlightBuilder highlightBuilder = new HighlightBuilder();
-            highlightBuilder.field(field);
-            highlightBuilder.preTags("<b>");
-            highlightBuilder.postTags("</b>");
-            highlightBuilder.numOfFragments(0);
-            searchSourceBuilder.highlighter(highlightBuilder);
-            searchSourceBuilder.size(100);
-
-
-            getQueryBuilder(keyword, option, searchSourceBuilder, field);
-
-            searchRequest.source(searchSourceBuilder);
-            SearchResponse searchResponse = elasticConfiguration.getElasticClient().search(searchRequest, RequestOptions.DEFAULT);
-            Map<String, Integer> frequencyMap = new HashMap<>();
-            Pattern pattern = Pattern.compile("<b>(.*?)</b>");
-
-            for (SearchHit hit : searchResponse.getHits().getHits()) {
-                HighlightField highlightField = hit.getHighlightFields().get(field);
-                if (highlightField != null) {
-                    for (Text fragment : highlightField.fragments()) {
-                        Matcher matcher = pattern.matcher(fragment.string());
-                        while (matcher.find()) {
-                            String matched = matcher.group(1);
-                            frequencyMap.put(matched, frequencyMap.getOrDefault(matched, 0) + 1);
-                        }
+            popularityRange = searchLogRollupService.buildRangeQuery(LocalDate.now().minusDays(popularityDays), null);
+        } catch (UncheckedIOException e) {
+            return CompletableFuture.completedFuture(fallback(e, keyword, option, limit));
+        }
+        SearchSourceBuilder popularitySource = new SearchSourceBuilder()
+                .query(popularityRange)
+                .aggregation(AggregationBuilders.terms(POPULARITY_NAME)
+                        .field(searchLogKeywordField)
+                        .includeExclude(new IncludeExclude(include, null))
+                        .size(candidates)
+                        .subAggregation(searchLogRollupService.countAggregation(POPULARITY_COUNT_NAME))
+                        .order(BucketOrder.aggregation(POPULARITY_COUNT_NAME, false)));
+        SearchRequest popularityRequest = new SearchRequest(searchLogRollupService.getIndices())
+                .indicesOptions(searchLogRollupService.getIndicesOptions())
+                .source(popularitySource);
+        queryShaper.aggregationOnly(popularityRequest, Arrays.asList(include, candidates));
+
+        MultiSearchRequest multiSearchRequest = new MultiSearchRequest().add(suggestionRequest).add(popularityRequest);
+        return elasticsearchExecutor.msearch(Endpoint.AUTOCOMPLETE, multiSearchRequest, timeoutMs)
+                .thenApply(response -> rankTerms(response, limit))
+                .exceptionally(e -> fallback(e, keyword, option, limit));
+    }
+
+    private CompletableFuture<List<String>> complete(String keyword, int limit) {
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder()
+                .size(0)
+                .fetchSource(false)
+                .suggest(new SuggestBuilder().addSuggestion(SUGGESTIONS_NAME,
+                        SuggestBuilders.completionSuggestion(completionField).prefix(keyword).skipDuplicates(true).size(limit)));
+
+        return elasticsearchExecutor.search(Endpoint.AUTOCOMPLETE, new SearchRequest(autocompleteIndex).source(searchSourceBuilder), timeoutMs)
+                .thenApply(AutoCompleteService::completionTerms)
+                .exceptionally(e -> fallback(e, keyword, Option.PREFIX, limit));
+    }
+
+    /**
+     * Answers from the in-memory index when Elasticsearch fails or the call is rejected, so autocomplete degrades
+     * instead of erroring while Elasticsearch is overloaded.
+     */
+    private List<String> fallback(Throwable error, String keyword, Option option, int limit) {
+        if (option != null && autoCompleteEngine.isReady()) {
+            return autoCompleteEngine.suggest(keyword, option, limit);
+        }
+        return Collections.singletonList(ElasticsearchExecutor.errorMessage(error));
+    }
+
+    private List<String> rankTerms(MultiSearchResponse response, int limit) {
+        MultiSearchResponse.Item suggestions = response.getResponses()[0];
+        if (suggestions.isFailure()) {
+            throw new IllegalStateException(suggestions.getFailureMessage(), suggestions.getFailure());
+        }
+
+        Map<String, Long> popularity = new HashMap<>();
+        MultiSearchResponse.Item searchLogs = response.getResponses()[1];
+        if (!searchLogs.isFailure()) {
+            Terms terms = searchLogs.getResponse().getAggregations().get(POPULARITY_NAME);
+            for (Terms.Bucket bucket : terms.getBuckets()) {
+                Sum count = bucket.getAggregations().get(POPULARITY_COUNT_NAME);
+                popularity.put(bucket.getKeyAsString(), (long) count.getValue());
+            }
+        }
+        return rankTerms(suggestions.getResponse(), popularity, limit);
+    }
+
+    private List<String> rankTerms(SearchResponse response, Map<String, Long> popularity, int limit) {
+        Terms terms = response.getAggregations().get(SUGGESTIONS_NAME);
+        Map<String, Double> scores = new HashMap<>();
+        for (Terms.Bucket bucket : terms.getBuckets()) {
+            String term = bucket.getKeyAsString();
+            scores.put(term, bucket.getDocCount() + popularityWeight * popularity.getOrDefault(term, 0L));
+        }
+
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> completionTerms(SearchResponse response) {
+        List<String> suggestions = new ArrayList<>();
+        CompletionSuggestion completion = response.getSuggest().getSuggestion(SUGGESTIONS_NAME);
+        for (CompletionSuggestion.Entry entry : completion.getEntries()) {
+            for (CompletionSuggestion.Entry.Option option : entry.getOptions()) {
+                suggestions.add(option.getText().string());
+            }
+        }
+        return suggestions;
+    }
+
+    static List<String> rankHighlights(SearchResponse searchResponse, String field, int limit) {
+        Map<String, Integer> frequencyMap = new HashMap<>();
+
+        for (SearchHit hit : searchResponse.getHits().getHits()) {
+            HighlightField highlightField = hit.getHighlightFields().get(field);
+            if (highlightField != null) {
+                for (Text fragment : highlightField.fragments()) {
+                    Matcher matcher = HIGHLIGHT_PATTERN.matcher(fragment.string());
+                    while (matcher.find()) {
+                        String matched = matcher.group(1);
+                        frequencyMap.put(matched, frequencyMap.getOrDefault(matched, 0) + 1);
                     }
                 }
             }
+        }
+
+        return frequencyMap.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private static String includePattern(String keyword, Option option) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : keyword.trim().toCharArray()) {
+            if (REGEX_RESERVED.indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
 
-            return frequencyMap.entrySet().stream()
-                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                    .map(Map.Entry::getKey)
-                    .collect(Collectors.toList());
-        } catch (IOException | IllegalArgumentException e) {
-            return Collections.singletonList(e.getMessage());
+        switch (option) {
+            case SUFFIX:
+                return ".*" + escaped;
+            case CONTAINS:
+                return ".*" + escaped + ".*";
+            default:
+                return escaped + ".*";
         }
     }
 
@@ -0,0 +1,196 @@
+package com.example.searchAPI.service;
+
+import com.example.searchAPI.config.ElasticConfiguration;
+import com.example.searchAPI.constant.execution.Endpoint;
+import com.example.searchAPI.constant.execution.ExecutionMode;
+import com.example.searchAPI.resilience.ResilienceRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.http.client.config.RequestConfig;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Cancellable;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Single entry point for the Elasticsearch calls made on the request path.
+ * In {@code blocking} mode calls run on the caller's thread and return an already completed future;
+ * in {@code async} mode they use the client's async API so no servlet thread waits on Elasticsearch, and their
+ * futures complete on a bounded result pool so callers' result building never runs on the client's I/O threads.
+ * Every call goes through the endpoint's {@link com.example.searchAPI.resilience.ResilienceGuard}.
+ */
+@Component
+public class ElasticsearchExecutor {
+
+    @FunctionalInterface
+    private interface ElasticCall<T> {
+        T call() throws Exception;
+    }
+
+    @Autowired
+    private ElasticConfiguration elasticConfiguration;
+
+    @Autowired
+    private ResilienceRegistry resilienceRegistry;
+
+    @Value("${search.execution.mode:blocking}")
+    private String modeOption;
+
+    @Value("${search.execution.resultThreads:0}")
+    private int resultThreads;
+
+    @Value("${search.execution.resultQueueSize:1000}")
+    private int resultQueueSize;
+
+    private ExecutionMode mode;
+    private ThreadPoolExecutor resultExecutor;
+
+    @PostConstruct
+    public void init() {
+        mode = ExecutionMode.of(modeOption);
+        int threads = resultThreads > 0 ? resultThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        resultExecutor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(resultQueueSize), runnable -> {
+            Thread thread = new Thread(runnable, "es-result-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        resultExecutor.shutdownNow();
+    }
+
+    public ExecutionMode getMode() {
+        return mode;
+    }
+
+    public CompletableFuture<SearchResponse> search(Endpoint endpoint, SearchRequest request, long timeoutMs) {
+        RequestOptions options = options(timeoutMs);
+        if (mode == ExecutionMode.BLOCKING) {
+            return guarded(endpoint, () -> blocking(() -> elasticConfiguration.getElasticClient().search(request, options)));
+        }
+        return searchAsync(endpoint, request, timeoutMs);
+    }
+
+    /**
+     * {@link #search} on the client's async API whatever the mode, for callers that overlap the call with their own work.
+     */
+    public CompletableFuture<SearchResponse> searchAsync(Endpoint endpoint, SearchRequest request, long timeoutMs) {
+        RequestOptions options = options(timeoutMs);
+        return completeOnResultPool(guarded(endpoint, () -> async(listener -> elasticConfiguration.getElasticClient().searchAsync(request, options, listener), timeoutMs)));
+    }
+
+    public CompletableFuture<MultiSearchResponse> msearch(Endpoint endpoint, MultiSearchRequest request, long timeoutMs) {
+        RequestOptions options = options(timeoutMs);
+        if (mode == ExecutionMode.BLOCKING) {
+            return guarded(endpoint, () -> blocking(() -> elasticConfiguration.getElasticClient().msearch(request, options)));
+        }
+        return completeOnResultPool(guarded(endpoint, () -> async(listener -> elasticConfiguration.getElasticClient().msearchAsync(request, options, listener), timeoutMs)));
+    }
+
+    public CompletableFuture<Response> perform(Endpoint endpoint, Request request, long timeoutMs) {
+        request.setOptions(options(timeoutMs));
+        if (mode == ExecutionMode.BLOCKING) {
+            return guarded(endpoint, () -> blocking(() -> elasticConfiguration.getElasticClient().getLowLevelClient().performRequest(request)));
+        }
+        return completeOnResultPool(guarded(endpoint, () -> async(listener -> elasticConfiguration.getElasticClient().getLowLevelClient().performRequestAsync(request, new ResponseListener() {
+            @Override
+            public void onSuccess(Response response) {
+                listener.onResponse(response);
+            }
+
+            @Override
+            public void onFailure(Exception exception) {
+                listener.onFailure(exception);
+            }
+        }), timeoutMs)));
+    }
+
+    public static Throwable unwrap(Throwable throwable) {
+        while ((throwable instanceof CompletionException || throwable instanceof ExecutionException) && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
+
+    public static String errorMessage(Throwable throwable) {
+        Throwable cause = unwrap(throwable);
+        if (cause instanceof TimeoutException) {
+            return "Elasticsearch 응답 시간이 초과되었습니다.";
+        }
+        if (cause instanceof RejectedExecutionException) {
+            return "요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.";
+        }
+        return cause.getMessage();
+    }
+
+    private <T> CompletableFuture<T> guarded(Endpoint endpoint, Supplier<CompletableFuture<T>> call) {
+        if (!resilienceRegistry.isEnabled()) {
+            return call.get();
+        }
+        return resilienceRegistry.get(endpoint).execute(call);
+    }
+
+    /**
+     * Bounds the call by its endpoint timeout while keeping the client's connect timeout, and never waits longer
+     * for a pooled connection than for the response itself.
+     */
+    private RequestOptions options(long timeoutMs) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(elasticConfiguration.getConnectTimeoutMs())
+                .setConnectionRequestTimeout((int) Math.min(elasticConfiguration.getConnectionRequestTimeoutMs(), timeoutMs))
+                .setSocketTimeout((int) timeoutMs)
+                .build();
+        return RequestOptions.DEFAULT.toBuilder().setRequestConfig(requestConfig).build();
+    }
+
+    /**
+     * Hands the completion from the client's I/O thread (or the timeout thread) to the result pool, so the
+     * caller's {@code thenApply} stages run there; when the pool is full the call fails instead of queueing unbounded.
+     */
+    private <T> CompletableFuture<T> completeOnResultPool(CompletableFuture<T> future) {
+        return future.thenApplyAsync(Function.identity(), resultExecutor);
+    }
+
+    private static <T> CompletableFuture<T> blocking(ElasticCall<T> call) {
+        try {
+            return CompletableFuture.completedFuture(call.call());
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static <T> CompletableFuture<T> async(Function<ActionListener<T>, Cancellable> call, long timeoutMs) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Cancellable cancellable = call.apply(ActionListener.wrap(future::complete, future::completeExceptionally));
+        future.orTimeout(timeoutMs, TimeUnit.MILLISECONDS).whenComplete((result, error) -> {
+            if (error instanceof TimeoutException) {
+                cancellable.cancel();
+            }
+        });
+        return future;
+    }
+}
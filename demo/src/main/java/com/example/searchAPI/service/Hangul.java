@@ -0,0 +1,89 @@
+package com.example.searchAPI.service;
+
+/**
+ * Hangul decomposition used for Korean autocomplete keys.
+ * Syllables are split into compatibility jamo, and compound vowels and final consonants are split further,
+ * so every intermediate state of an IME composition is a prefix of the full key.
+ */
+final class Hangul {
+
+    private static final char SYLLABLE_FIRST = '가';
+    private static final char SYLLABLE_LAST = '힣';
+    private static final char JAMO_FIRST = 'ㄱ';
+    private static final char JAMO_LAST = 'ㅣ';
+
+    private static final String CHOSUNG = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ";
+    private static final String[] JUNGSUNG = {
+            "ㅏ", "ㅐ", "ㅑ", "ㅒ", "ㅓ", "ㅔ", "ㅕ", "ㅖ", "ㅗ", "ㅗㅏ", "ㅗㅐ",
+            "ㅗㅣ", "ㅛ", "ㅜ", "ㅜㅓ", "ㅜㅔ", "ㅜㅣ", "ㅠ", "ㅡ", "ㅡㅣ", "ㅣ"
+    };
+    private static final String[] JONGSUNG = {
+            "", "ㄱ", "ㄲ", "ㄱㅅ", "ㄴ", "ㄴㅈ", "ㄴㅎ", "ㄷ", "ㄹ", "ㄹㄱ", "ㄹㅁ", "ㄹㅂ", "ㄹㅅ", "ㄹㅌ",
+            "ㄹㅍ", "ㄹㅎ", "ㅁ", "ㅂ", "ㅂㅅ", "ㅅ", "ㅆ", "ㅇ", "ㅈ", "ㅊ", "ㅋ", "ㅌ", "ㅍ", "ㅎ"
+    };
+    private static final String[] COMPATIBILITY_JAMO = new String[JAMO_LAST - JAMO_FIRST + 1];
+
+    static {
+        String compounds = "ㄳㄱㅅㄵㄴㅈㄶㄴㅎㄺㄹㄱㄻㄹㅁㄼㄹㅂㄽㄹㅅㄾㄹㅌㄿㄹㅍㅀㄹㅎㅄㅂㅅㅘㅗㅏㅙㅗㅐㅚㅗㅣㅝㅜㅓㅞㅜㅔㅟㅜㅣㅢㅡㅣ";
+        for (int i = 0; i < compounds.length(); i += 3) {
+            COMPATIBILITY_JAMO[compounds.charAt(i) - JAMO_FIRST] = compounds.substring(i + 1, i + 3);
+        }
+    }
+
+    private Hangul() {
+    }
+
+    /**
+     * Replaces each syllable with its initial consonant; other characters are kept.
+     */
+    static String chosung(String text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= SYLLABLE_FIRST && c <= SYLLABLE_LAST) {
+                builder.append(CHOSUNG.charAt((c - SYLLABLE_FIRST) / (21 * 28)));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Decomposes syllables and compound jamo into single compatibility jamo; other characters are kept.
+     */
+    static String jamo(String text) {
+        StringBuilder builder = new StringBuilder(text.length() * 3);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= SYLLABLE_FIRST && c <= SYLLABLE_LAST) {
+                int index = c - SYLLABLE_FIRST;
+                builder.append(CHOSUNG.charAt(index / (21 * 28)))
+                        .append(JUNGSUNG[index % (21 * 28) / 28])
+                        .append(JONGSUNG[index % 28]);
+            } else if (c >= JAMO_FIRST && c <= JAMO_LAST && COMPATIBILITY_JAMO[c - JAMO_FIRST] != null) {
+                builder.append(COMPATIBILITY_JAMO[c - JAMO_FIRST]);
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * True when the text is made only of the 19 initial consonants (and blanks), i.e. an initial-consonant query.
+     * Compound final consonants such as ㄳ are not initials and go through the jamo keys instead.
+     */
+    static boolean isChosungOnly(String text) {
+        boolean consonant = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (CHOSUNG.indexOf(c) >= 0) {
+                consonant = true;
+            } else if (!Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return consonant;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.searchAPI.service;
+
+import com.example.searchAPI.config.ElasticConfiguration;
+import com.example.searchAPI.constant.execution.Endpoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Opens and closes the point-in-time views of the search index that cursor pages and exports iterate over.
+ */
+@Component
+public class PointInTimeService {
+
+    @Autowired
+    private ElasticConfiguration elasticConfiguration;
+
+    @Autowired
+    private ElasticsearchExecutor elasticsearchExecutor;
+
+    @Value("${search.index}")
+    private String index;
+
+    private final Logger logger = LoggerFactory.getLogger(PointInTimeService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public CompletableFuture<String> open(Endpoint endpoint, String keepAlive, long timeoutMs) {
+        Request request = new Request("POST", "/" + index + "/_pit");
+        request.addParameter("keep_alive", keepAlive);
+        return elasticsearchExecutor.perform(endpoint, request, timeoutMs).thenApply(response -> {
+            try (InputStream content = response.getEntity().getContent()) {
+                return objectMapper.readTree(content).get("id").asText();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Releases the point in time in the background; one left open expires with its keep-alive anyway.
+     */
+    public void close(String pointInTimeId) {
+        Request request = new Request("DELETE", "/_pit");
+        request.setJsonEntity(objectMapper.createObjectNode().put("id", pointInTimeId).toString());
+        elasticConfiguration.getElasticClient().getLowLevelClient().performRequestAsync(request, new ResponseListener() {
+            @Override
+            public void onSuccess(Response response) {
+            }
+
+            @Override
+            public void onFailure(Exception exception) {
+                logger.warn("Failed to close point in time: {}", exception.getMessage());
+            }
+        });
+    }
+}
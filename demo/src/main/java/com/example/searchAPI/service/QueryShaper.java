@@ -0,0 +1,72 @@
+package com.example.searchAPI.service;
+
+import com.example.searchAPI.constant.search.Period;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+
+/**
+ * Shapes requests so Elasticsearch's shard-level caches can answer repeats. Relative periods become date math
+ * rounded to the day, which reads the same all day long where resolved dates would not; aggregation-only requests
+ * fetch no hits and ask for the shard request cache; and a preference derived from the request sends identical
+ * requests to the same shard copies, whose caches already hold them.
+ */
+@Component
+public class QueryShaper {
+
+    private static final String PREFERENCE_PREFIX = "q";
+
+    @Value("${search.shaping.requestCache:true}")
+    private boolean requestCache;
+
+    @Value("${search.shaping.preference:true}")
+    private boolean preference;
+
+    /**
+     * {@code field} within the last day, week, month or year up to the end of today, e.g. {@code now-1w/d}
+     * to {@code now/d}; null for any other period. Days are rounded in the JVM's time zone, the one the resolved
+     * dates of the cache key are taken in, so the query and its key agree on what today is.
+     */
+    public static RangeQueryBuilder relativeDateRange(String field, String period) {
+        String unit;
+        if (Period.DAY.get().equalsIgnoreCase(period)) {
+            unit = "d";
+        } else if (Period.WEEK.get().equalsIgnoreCase(period)) {
+            unit = "w";
+        } else if (Period.MONTH.get().equalsIgnoreCase(period)) {
+            unit = "M";
+        } else if (Period.YEAR.get().equalsIgnoreCase(period)) {
+            unit = "y";
+        } else {
+            return null;
+        }
+        return QueryBuilders.rangeQuery(field).gte("now-1" + unit + "/d").lte("now/d").timeZone(ZoneId.systemDefault().getId());
+    }
+
+    /**
+     * Marks a request whose answer is only its aggregations: no hits are fetched and the shard request cache is
+     * asked for explicitly.
+     */
+    public SearchRequest aggregationOnly(SearchRequest searchRequest, Object key) {
+        searchRequest.source().size(0);
+        if (requestCache) {
+            searchRequest.requestCache(true);
+        }
+        return preferred(searchRequest, key);
+    }
+
+    /**
+     * Routes the request by {@code key}, a canonical form of the request, so equal requests reach the same shard
+     * copies while different ones still spread over all of them.
+     */
+    public SearchRequest preferred(SearchRequest searchRequest, Object key) {
+        if (preference && key != null) {
+            searchRequest.preference(PREFERENCE_PREFIX + Integer.toHexString(key.hashCode()));
+        }
+        return searchRequest;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.searchAPI.service;
+
+import com.example.searchAPI.constant.search.Field;
+import com.example.searchAPI.query.KeywordQuery;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.search.MatchQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compiled keyword queries keyed by the normalized keyword and field designation. A template holds the clause
+ * queries, which are never modified once built; each search gets its own bool query over them, so per-request
+ * additions such as the date range filter do not leak into the cache.
+ */
+@Component
+public class QueryTemplateCache {
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final List<String> clauses;
+        private final List<String> fields;
+    }
+
+    static class Template {
+        private final List<QueryBuilder> must = new ArrayList<>();
+        private final List<QueryBuilder> mustNot = new ArrayList<>();
+        private final List<QueryBuilder> should = new ArrayList<>();
+
+        BoolQueryBuilder toQuery() {
+            BoolQueryBuilder boolQueryBuilder = QueryBuilders.boolQuery();
+            must.forEach(boolQueryBuilder::must);
+            mustNot.forEach(boolQueryBuilder::mustNot);
+            should.forEach(boolQueryBuilder::should);
+            if (boolQueryBuilder.hasClauses()) {
+                boolQueryBuilder.boost(2.0f);
+            }
+            return boolQueryBuilder;
+        }
+    }
+
+    @Value("${search.queryCache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.queryCache.maxSize:10000}")
+    private long maxSize;
+
+    private Cache<Key, Template> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    public BoolQueryBuilder query(KeywordQuery keywordQuery, List<String> fieldDesignation) {
+        if (!enabled) return compile(keywordQuery, fieldDesignation).toQuery();
+
+        List<String> fields = new ArrayList<>(fieldDesignation);
+        Collections.sort(fields);
+        return cache.get(new Key(keywordQuery.getNormalizedClauses(), fields), key -> compile(keywordQuery, fieldDesignation)).toQuery();
+    }
+
+    /**
+     * Optional clauses match any word, required ones all of theirs; phrases match in order on all fields and
+     * exactly on designated ones.
+     */
+    static Template compile(KeywordQuery keywordQuery, List<String> fieldDesignation) {
+        boolean searchAllFields = fieldDesignation.isEmpty() || (fieldDesignation.size() == 1 && Field.ALL.get().equals(fieldDesignation.get(0)));
+        Template template = new Template();
+        for (KeywordQuery.Clause clause : keywordQuery.getClauses()) {
+            List<QueryBuilder> target = clause.getOccur() == KeywordQuery.Occur.MUST ? template.must
+                    : clause.getOccur() == KeywordQuery.Occur.MUST_NOT ? template.mustNot : template.should;
+            if (searchAllFields) {
+                target.add(clause.isPhrase()
+                        ? QueryBuilders.multiMatchQuery(clause.getText(), "*").type(MatchQuery.Type.PHRASE)
+                        : QueryBuilders.multiMatchQuery(clause.getText(), "*"));
+            } else {
+                for (String field : fieldDesignation) {
+                    target.add(clause.isPhrase()
+                            ? QueryBuilders.termQuery(field, clause.getText())
+                            : QueryBuilders.matchQuery(field, clause.getText()));
+                }
+            }
+        }
+        return template;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getEstimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+}
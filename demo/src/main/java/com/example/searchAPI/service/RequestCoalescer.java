@@ -0,0 +1,169 @@
+package com.example.searchAPI.service;
+
+import com.example.searchAPI.constant.execution.Endpoint;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of identical Elasticsearch requests. The first caller for a key runs the request and
+ * concurrent callers with an equal key share its future instead of sending their own. A follower waits at most
+ * {@code search.coalescing.maxWaitMs} for the shared result and then runs the request itself.
+ * Nothing is kept once the request completes; caching finished results is {@link SearchResultCache}'s job.
+ */
+@Component
+public class RequestCoalescer {
+
+    @Value("${search.coalescing.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.coalescing.maxWaitMs:2000}")
+    private long maxWaitMs;
+
+    private final Logger logger = LoggerFactory.getLogger(RequestCoalescer.class);
+    private final Map<Flight, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new Stats());
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coalescing-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Runs {@code request} unless an equal request for the same endpoint is already in flight. A null key is never
+     * coalesced.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(Endpoint endpoint, Object key, Supplier<CompletableFuture<T>> request) {
+        if (!enabled || key == null) return request.get();
+
+        Stats endpointStats = stats.get(endpoint);
+        Flight flight = new Flight(endpoint, key);
+        CompletableFuture<T> shared = new CompletableFuture<>();
+        CompletableFuture<T> existing = (CompletableFuture<T>) inFlight.putIfAbsent(flight, shared);
+        if (existing != null) {
+            endpointStats.followers.increment();
+            return follow(existing, endpointStats, request);
+        }
+
+        endpointStats.leaders.increment();
+        shared.whenComplete((value, error) -> inFlight.remove(flight, shared));
+        try {
+            request.get().whenComplete((value, error) -> complete(shared, value, error));
+        } catch (RuntimeException e) {
+            shared.completeExceptionally(e);
+        }
+        return shared;
+    }
+
+    private <T> CompletableFuture<T> follow(CompletableFuture<T> shared, Stats endpointStats, Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        ScheduledFuture<?> timeout = scheduler.schedule(() -> {
+            if (result.isDone()) return;
+
+            endpointStats.timeouts.increment();
+            try {
+                request.get().whenComplete((value, error) -> complete(result, value, error));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }, maxWaitMs, TimeUnit.MILLISECONDS);
+        shared.whenComplete((value, error) -> {
+            timeout.cancel(false);
+            complete(result, value, error);
+        });
+        return result;
+    }
+
+    private static <T> void complete(CompletableFuture<T> future, T value, Throwable error) {
+        if (error != null) {
+            future.completeExceptionally(error);
+        } else {
+            future.complete(value);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    public long getLeaderCount(Endpoint endpoint) {
+        return stats.get(endpoint).leaders.sum();
+    }
+
+    public long getFollowerCount(Endpoint endpoint) {
+        return stats.get(endpoint).followers.sum();
+    }
+
+    public long getTimeoutCount(Endpoint endpoint) {
+        return stats.get(endpoint).timeouts.sum();
+    }
+
+    /**
+     * Share of requests that were answered by another caller's in-flight request.
+     */
+    public double getCoalescingRatio(Endpoint endpoint) {
+        long leaders = getLeaderCount(endpoint);
+        long followers = getFollowerCount(endpoint);
+        return leaders + followers == 0 ? 0 : (double) followers / (leaders + followers);
+    }
+
+    @Scheduled(fixedDelayString = "${search.coalescing.reportIntervalMs:60000}", initialDelayString = "${search.coalescing.reportIntervalMs:60000}")
+    public void report() {
+        if (!enabled) return;
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            if (getFollowerCount(endpoint) == 0) continue;
+            logger.info("Coalesced {} of {} {} requests ({}%), {} followers stopped waiting",
+                    getFollowerCount(endpoint), getLeaderCount(endpoint) + getFollowerCount(endpoint), endpoint.get(),
+                    String.format("%.1f", 100 * getCoalescingRatio(endpoint)), getTimeoutCount(endpoint));
+        }
+    }
+
+    private static class Stats {
+        private final LongAdder leaders = new LongAdder();
+        private final LongAdder followers = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Flight {
+        private final Endpoint endpoint;
+        private final Object key;
+    }
+}
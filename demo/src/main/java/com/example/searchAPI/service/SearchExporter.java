@@ -0,0 +1,117 @@
+package com.example.searchAPI.service;
+
+import com.example.searchAPI.constant.execution.Endpoint;
+import com.example.searchAPI.model.SearchDocument;
+import com.example.searchAPI.model.SearchResult;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.builder.PointInTimeBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Streams every hit of a query as newline-delimited JSON. The hits are read in batches from a point in time with
+ * {@code search_after}, and the next batch is requested before the current one is written, so at most two batches
+ * are held whatever the size of the result set. A client that goes away ends the export at its next write.
+ * Every batch is sorted on the unique tiebreaker so {@code search_after} never skips or repeats a hit; sorting on
+ * {@code _id} builds fielddata for it on every shard, so a unique keyword field with doc values is preferred.
+ */
+@Component
+public class SearchExporter {
+
+    @Autowired
+    private ElasticsearchExecutor elasticsearchExecutor;
+
+    @Autowired
+    private PointInTimeService pointInTimeService;
+
+    @Value("${search.export.batchSize:1000}")
+    private int batchSize;
+
+    @Value("${search.export.keepAlive:5m}")
+    private String keepAlive;
+
+    @Value("${search.execution.timeoutMs.export:30000}")
+    private long timeoutMs;
+
+    @Value("${search.cursor.tiebreaker:_id}")
+    private String tiebreaker;
+
+    private final Logger logger = LoggerFactory.getLogger(SearchExporter.class);
+    private final ObjectWriter writer = new ObjectMapper().writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .withRootValueSeparator("");
+
+    public void export(SearchSourceBuilder sourceBuilder, Function<SearchHit, SearchDocument> toDocument, OutputStream outputStream) throws IOException {
+        long startNanos = System.nanoTime();
+        sourceBuilder.size(batchSize)
+                .trackTotalHits(false)
+                .sort(SortBuilders.fieldSort(tiebreaker).order(SortOrder.ASC));
+        long exported = 0;
+
+        JsonGenerator generator = writer.getFactory().createGenerator(outputStream);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        String pointInTimeId = null;
+        try {
+            pointInTimeId = pointInTimeService.open(Endpoint.EXPORT, keepAlive, timeoutMs).join();
+            CompletableFuture<SearchResponse> next = fetch(sourceBuilder, pointInTimeId, null);
+            while (next != null) {
+                SearchResponse response = next.join();
+                if (response.pointInTimeId() != null) {
+                    pointInTimeId = response.pointInTimeId();
+                }
+                SearchHit[] hits = response.getHits().getHits();
+                next = hits.length < batchSize ? null : fetch(sourceBuilder, pointInTimeId, hits[hits.length - 1].getSortValues());
+
+                for (SearchHit hit : hits) {
+                    writer.writeValue(generator, toDocument.apply(hit));
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+                exported += hits.length;
+            }
+            logger.info("Exported {} documents in {} ms", exported, (System.nanoTime() - startNanos) / 1_000_000);
+        } catch (CompletionException e) {
+            logger.warn("Export failed after {} documents: {}", exported, ElasticsearchExecutor.errorMessage(e));
+            writer.writeValue(generator, SearchResult.error(ElasticsearchExecutor.errorMessage(e)));
+            generator.writeRaw('\n');
+            generator.flush();
+        } catch (IOException e) {
+            // The batch requested ahead still completes, but nothing further is fetched.
+            logger.info("Export stopped by the client after {} documents: {}", exported, e.getMessage());
+        } finally {
+            if (pointInTimeId != null) {
+                pointInTimeService.close(pointInTimeId);
+            }
+        }
+    }
+
+    private CompletableFuture<SearchResponse> fetch(SearchSourceBuilder sourceBuilder, String pointInTimeId, Object[] searchAfter) {
+        SearchSourceBuilder batchBuilder = sourceBuilder.shallowCopy()
+                .pointInTimeBuilder(new PointInTimeBuilder(pointInTimeId).setKeepAlive(TimeValue.parseTimeValue(keepAlive, "search.export.keepAlive")));
+        if (searchAfter != null) {
+            batchBuilder.searchAfter(searchAfter);
+        }
+        SearchRequest searchRequest = new SearchRequest().source(batchBuilder);
+        searchRequest.setCcsMinimizeRoundtrips(false);
+        return elasticsearchExecutor.searchAsync(Endpoint.EXPORT, searchRequest, timeoutMs);
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.searchAPI.service;
+
+import com.example.searchAPI.config.ElasticConfiguration;
+import com.example.searchAPI.constant.topsearched.TopSearched;
+import com.example.searchAPI.model.SearchLogRollup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.indices.CreateIndexRequest;
+import org.elasticsearch.client.indices.GetIndexRequest;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.index.reindex.BulkByScrollResponse;
+import org.elasticsearch.index.reindex.DeleteByQueryRequest;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeValuesSourceBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
+import org.elasticsearch.search.aggregations.metrics.Max;
+import org.elasticsearch.search.aggregations.metrics.SumAggregationBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compacts each finished day of raw search-log events into one document per keyword in the rollup index.
+ * Documents are keyed by day and keyword so a rerun overwrites instead of double counting. The last rolled-up
+ * day is read back from the rollup index itself, so every instance, including a fresh one, agrees on where the
+ * rollup ends. Each run rolls up the last {@code topsearched.rollup.lateDays} rolled-up days again, so events
+ * replayed late from the spool are counted, and the run is held back while the local spool still has a backlog.
+ * Raw events are expired after {@code topsearched.rollup.rawRetentionDays}, but never for a day that has not
+ * been rolled up or may still be rolled up again. The rollup index is created with an explicit mapping before the
+ * first write, so the day is a date and ranges over it compare chronologically.
+ */
+@Service
+public class SearchLogRollupService {
+
+    private static final String ROLLUP_AGGREGATION = "rollup";
+    private static final String WATERMARK_AGGREGATION = "watermark";
+    // keyword carries a keyword sub-field so the raw index's dynamic keyword.keyword path resolves on both indices.
+    private static final String ROLLUP_MAPPING = "{\"properties\":{"
+            + "\"searchedDate\":{\"type\":\"date\",\"format\":\"" + TopSearched.DATE_FORMAT.get() + "\"},"
+            + "\"keyword\":{\"type\":\"keyword\",\"fields\":{\"keyword\":{\"type\":\"keyword\"}}},"
+            + "\"count\":{\"type\":\"long\"}}}";
+
+    @Autowired
+    private ElasticConfiguration elasticConfiguration;
+
+    @Autowired
+    private SearchLogSpool spool;
+
+    @Value("${topsearched.rollup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${topsearched.rollup.index:search-logs-rollup}")
+    private String rollupIndex;
+
+    @Value("${topsearched.rollup.field.count:count}")
+    private String countField;
+
+    @Value("${topsearched.rollup.pageSize:1000}")
+    private int pageSize;
+
+    @Value("${topsearched.rollup.graceMinutes:60}")
+    private long graceMinutes;
+
+    @Value("${topsearched.rollup.rawRetentionDays:30}")
+    private int rawRetentionDays;
+
+    @Value("${topsearched.rollup.lateDays:2}")
+    private int lateDays;
+
+    @Value("${topsearched.index}")
+    private String topSearchedIndex;
+
+    @Value("${topsearched.field.date}")
+    private String dateField;
+
+    @Value("${topsearched.field.keyword}")
+    private String keywordField;
+
+    private final Logger logger = LoggerFactory.getLogger(SearchLogRollupService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(TopSearched.DATE_FORMAT.get());
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile LocalDate lastRolledUpDay;
+    private volatile boolean watermarkLoaded;
+    private boolean rollupIndexCreated;
+    private long spoolCommittedAtLastRollup = -1;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) return;
+
+        try {
+            loadWatermark();
+            logger.info("Search log rollup resumes after {}", lastRolledUpDay);
+        } catch (Exception e) {
+            logger.warn("Failed to read the search log rollup watermark from {}: {}", rollupIndex, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${topsearched.rollup.intervalMs:3600000}", initialDelayString = "${topsearched.rollup.initialDelayMs:60000}")
+    public void rollup() {
+        if (!enabled || !running.compareAndSet(false, true)) return;
+        try {
+            long pendingBytes = spool.getPendingBytes();
+            if (pendingBytes > 0) {
+                logger.info("Search log rollup held back until {} spooled bytes are replayed", pendingBytes);
+                return;
+            }
+
+            loadWatermark();
+            LocalDate finished = LocalDateTime.now().minusMinutes(graceMinutes).toLocalDate().minusDays(1);
+            long spoolCommitted = spool.getCommittedPosition();
+            if (lastRolledUpDay == null || lastRolledUpDay.isBefore(finished) || spoolCommitted != spoolCommittedAtLastRollup) {
+                createRollupIndex();
+                rollupUntil(finished);
+                spoolCommittedAtLastRollup = spoolCommitted;
+            }
+            expireRawEvents();
+        } catch (Exception e) {
+            logger.error("Search log rollup failed after {}: {}", lastRolledUpDay, e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public LocalDate getLastRolledUpDay() {
+        return lastRolledUpDay;
+    }
+
+    /**
+     * Reads the last rolled-up day as the latest day in the rollup index, or none while it is empty or missing.
+     */
+    public synchronized void loadWatermark() throws IOException {
+        SearchSourceBuilder sourceBuilder = new SearchSourceBuilder()
+                .size(0)
+                .aggregation(AggregationBuilders.max(WATERMARK_AGGREGATION).field(dateField));
+        SearchResponse response = elasticConfiguration.getElasticClient().search(new SearchRequest(rollupIndex)
+                .indicesOptions(getIndicesOptions())
+                .source(sourceBuilder), RequestOptions.DEFAULT);
+
+        Max watermark = response.getAggregations() == null ? null : response.getAggregations().get(WATERMARK_AGGREGATION);
+        lastRolledUpDay = watermark == null || Double.isInfinite(watermark.getValue())
+                ? null
+                : Instant.ofEpochMilli((long) watermark.getValue()).atZone(ZoneOffset.UTC).toLocalDate();
+        watermarkLoaded = true;
+    }
+
+    public String[] getIndices() {
+        return enabled ? new String[]{rollupIndex, topSearchedIndex} : new String[]{topSearchedIndex};
+    }
+
+    public IndicesOptions getIndicesOptions() {
+        return IndicesOptions.lenientExpandOpen();
+    }
+
+    /**
+     * Counts each keyword from the rollup for rolled-up days and from raw events afterwards; raw documents
+     * carry no count field and are counted as one.
+     */
+    public SumAggregationBuilder countAggregation(String name) {
+        return AggregationBuilders.sum(name).field(countField).missing(1);
+    }
+
+    /**
+     * Matches rollup documents up to the last rolled-up day and raw events after it, within {@code from}~{@code to}
+     * (either may be null for an open range), so no day is counted from both indices. Until the last rolled-up
+     * day has been read from the rollup index it is read here, and a failure is thrown rather than counting
+     * rolled-up days from raw events that may already be expired.
+     */
+    public QueryBuilder buildRangeQuery(LocalDate from, LocalDate to) {
+        if (enabled && !watermarkLoaded) {
+            try {
+                loadWatermark();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        LocalDate rolledUp = enabled ? lastRolledUpDay : null;
+        BoolQueryBuilder query = QueryBuilders.boolQuery().minimumShouldMatch(1);
+
+        LocalDate rawFrom = from;
+        if (rolledUp != null) {
+            LocalDate rollupTo = to == null || to.isAfter(rolledUp) ? rolledUp : to;
+            query.should(QueryBuilders.boolQuery()
+                    .filter(QueryBuilders.termQuery("_index", rollupIndex))
+                    .filter(dateRange(from, rollupTo)));
+            if (rawFrom == null || !rawFrom.isAfter(rolledUp)) {
+                rawFrom = rolledUp.plusDays(1);
+            }
+        }
+
+        query.should(QueryBuilders.boolQuery()
+                .filter(QueryBuilders.termQuery("_index", topSearchedIndex))
+                .filter(dateRange(rawFrom, to)));
+        return query;
+    }
+
+    private RangeQueryBuilder dateRange(LocalDate from, LocalDate to) {
+        RangeQueryBuilder range = QueryBuilders.rangeQuery(dateField);
+        if (from != null) range.gte(from.format(formatter));
+        if (to != null) range.lte(to.format(formatter));
+        return range;
+    }
+
+    private void createRollupIndex() throws IOException {
+        if (rollupIndexCreated) return;
+
+        if (!elasticConfiguration.getElasticClient().indices().exists(new GetIndexRequest(rollupIndex), RequestOptions.DEFAULT)) {
+            elasticConfiguration.getElasticClient().indices().create(new CreateIndexRequest(rollupIndex)
+                    .mapping(ROLLUP_MAPPING, XContentType.JSON), RequestOptions.DEFAULT);
+            logger.info("Created search log rollup index {}", rollupIndex);
+        }
+        rollupIndexCreated = true;
+    }
+
+    private void rollupUntil(LocalDate until) throws IOException {
+        long start = System.nanoTime();
+        List<CompositeValuesSourceBuilder<?>> sources = List.of(
+                new TermsValuesSourceBuilder("date").field(dateField),
+                new TermsValuesSourceBuilder("keyword").field(keywordField));
+        CompositeAggregationBuilder composite = AggregationBuilders.composite(ROLLUP_AGGREGATION, sources).size(pageSize);
+        RangeQueryBuilder range = QueryBuilders.rangeQuery(dateField).lte(until.format(formatter));
+        if (lastRolledUpDay != null) {
+            // The last day may have been cut short and earlier days may have had events replayed since.
+            range.gte(lastRolledUpDay.minusDays(lateDays).format(formatter));
+        }
+        SearchSourceBuilder sourceBuilder = new SearchSourceBuilder().query(range).aggregation(composite).size(0);
+
+        LocalDate currentDay = null;
+        long documents = 0;
+        while (true) {
+            SearchResponse response = elasticConfiguration.getElasticClient().search(new SearchRequest(topSearchedIndex).source(sourceBuilder), RequestOptions.DEFAULT);
+            CompositeAggregation aggregation = response.getAggregations().get(ROLLUP_AGGREGATION);
+
+            BulkRequest bulkRequest = new BulkRequest();
+            for (CompositeAggregation.Bucket bucket : aggregation.getBuckets()) {
+                LocalDate day = TopSearchedEngine.toDate(bucket.getKey().get("date"), formatter);
+                if (currentDay != null && !day.equals(currentDay)) {
+                    documents += bulk(bulkRequest);
+                    bulkRequest = new BulkRequest();
+                }
+                currentDay = day;
+
+                String keyword = String.valueOf(bucket.getKey().get("keyword"));
+                String searchedDate = day.format(formatter);
+                bulkRequest.add(new IndexRequest(rollupIndex)
+                        .id(searchedDate + "|" + keyword)
+                        .source(objectMapper.writeValueAsBytes(new SearchLogRollup(keyword, searchedDate, bucket.getDocCount())), XContentType.JSON));
+            }
+            documents += bulk(bulkRequest);
+
+            if (aggregation.afterKey() == null || aggregation.getBuckets().isEmpty()) break;
+            composite.aggregateAfter(aggregation.afterKey());
+        }
+
+        if (lastRolledUpDay == null || lastRolledUpDay.isBefore(until)) {
+            lastRolledUpDay = until;
+        }
+        logger.info("Rolled up search logs through {} into {} documents in {} ms", until, documents, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int bulk(BulkRequest bulkRequest) throws IOException {
+        if (bulkRequest.numberOfActions() == 0) return 0;
+
+        BulkResponse response = elasticConfiguration.getElasticClient().bulk(bulkRequest, RequestOptions.DEFAULT);
+        if (response.hasFailures()) {
+            throw new IOException("Search log rollup bulk failed: " + response.buildFailureMessage());
+        }
+        return bulkRequest.numberOfActions();
+    }
+
+    private void expireRawEvents() throws IOException {
+        if (rawRetentionDays < 0 || lastRolledUpDay == null) return;
+
+        // Days within lateDays of the last rolled-up day are rolled up again and still need their raw events.
+        LocalDate rolledUpFinal = lastRolledUpDay.minusDays(lateDays + 1L);
+        LocalDate retainFrom = LocalDate.now().minusDays(rawRetentionDays);
+        LocalDate expireUntil = rolledUpFinal.isBefore(retainFrom) ? rolledUpFinal : retainFrom.minusDays(1);
+        DeleteByQueryRequest request = new DeleteByQueryRequest(topSearchedIndex)
+                .setQuery(QueryBuilders.rangeQuery(dateField).lte(expireUntil.format(formatter)));
+        request.setConflicts("proceed");
+        BulkByScrollResponse response = elasticConfiguration.getElasticClient().deleteByQuery(request, RequestOptions.DEFAULT);
+        if (response.getDeleted() > 0) {
+            logger.info("Expired {} rolled-up search log events through {}", response.getDeleted(), expireUntil);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.example.searchAPI.service;
+
+import com.example.searchAPI.config.ElasticConfiguration;
+import com.example.searchAPI.constant.searchlog.Backpressure;
+import com.example.searchAPI.constant.topsearched.TopSearched;
+import com.example.searchAPI.model.SearchLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.rest.RestStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class SearchLogService {
+
+    @Autowired
+    private ElasticConfiguration elasticConfiguration;
+
+    @Autowired
+    private SearchLogSpool spool;
+
+    @Autowired
+    private TopSearchedEngine topSearchedEngine;
+
+    @Value("${topsearched.index}")
+    private String topSearchedIndex;
+
+    @Value("${topsearched.log.queueCapacity:10000}")
+    private int queueCapacity;
+
+    @Value("${topsearched.log.bulkSize:500}")
+    private int bulkSize;
+
+    @Value("${topsearched.log.flushIntervalMs:1000}")
+    private long flushIntervalMs;
+
+    @Value("${topsearched.log.backpressure:drop}")
+    private String backpressureOption;
+
+    @Value("${topsearched.log.blockTimeoutMs:50}")
+    private long blockTimeoutMs;
+
+    @Value("${topsearched.log.sampleThreshold:0.8}")
+    private double sampleThreshold;
+
+    @Value("${topsearched.log.sampleRate:0.1}")
+    private double sampleRate;
+
+    @Value("${topsearched.spool.retryBackoffMs:1000}")
+    private long retryBackoffMs;
+
+    @Value("${topsearched.spool.maxRetryBackoffMs:30000}")
+    private long maxRetryBackoffMs;
+
+    private final Logger logger = LoggerFactory.getLogger(SearchLogService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(TopSearched.DATE_FORMAT.get());
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong indexed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong spooled = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushNanos = new AtomicLong();
+    private volatile long lastFlushMillis;
+
+    private BlockingQueue<SearchLog> queue;
+    private Backpressure backpressure;
+    private Thread worker;
+    private Thread replayer;
+    private volatile boolean running;
+    private volatile boolean elasticsearchHealthy = true;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        backpressure = Backpressure.of(backpressureOption);
+        running = true;
+        worker = new Thread(this::run, "search-log-flusher");
+        worker.setDaemon(true);
+        worker.start();
+
+        if (spool.isEnabled()) {
+            replayer = new Thread(this::replay, "search-log-replayer");
+            replayer.setDaemon(true);
+            replayer.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+        if (replayer != null) {
+            replayer.interrupt();
+            replayer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public void record(List<String> terms) {
+        long searchedAt = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        topSearchedEngine.record(terms, today);
+
+        String searchedDate = today.format(formatter);
+        for (String term : terms) {
+            if (offer(new SearchLog(term, searchedDate, searchedAt))) {
+                enqueued.incrementAndGet();
+            } else {
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    private boolean offer(SearchLog searchLog) {
+        switch (backpressure) {
+            case BLOCK:
+                try {
+                    return queue.offer(searchLog, blockTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            case SAMPLE:
+                if (queue.size() >= queueCapacity * sampleThreshold && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                    return false;
+                }
+                return queue.offer(searchLog);
+            default:
+                return queue.offer(searchLog);
+        }
+    }
+
+    private void run() {
+        List<SearchLog> batch = new ArrayList<>(bulkSize);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (running || !queue.isEmpty()) {
+            try {
+                long waitNanos = deadline - System.nanoTime();
+                SearchLog head = waitNanos > 0 ? queue.poll(waitNanos, TimeUnit.NANOSECONDS) : queue.poll();
+                if (head != null) {
+                    batch.add(head);
+                    queue.drainTo(batch, bulkSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                queue.drainTo(batch);
+            }
+
+            if (batch.size() >= bulkSize || System.nanoTime() >= deadline || !running) {
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                    batch.clear();
+                }
+                deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+            }
+        }
+    }
+
+    private void flush(List<SearchLog> batch) {
+        long start = System.nanoTime();
+        try {
+            List<byte[]> documents = new ArrayList<>(batch.size());
+            for (SearchLog searchLog : batch) {
+                documents.add(toJson(searchLog));
+            }
+
+            if (spool.isEnabled()) {
+                spool.append(documents);
+                spooled.addAndGet(documents.size());
+            } else {
+                int failures = bulk(documents, null);
+                indexed.addAndGet(batch.size() - failures);
+                failed.addAndGet(failures);
+            }
+        } catch (Exception e) {
+            failed.addAndGet(batch.size());
+            logger.error("Failed to index {} search logs: {}", batch.size(), e.getMessage());
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            lastFlushMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+            flushNanos.addAndGet(elapsed);
+            flushCount.incrementAndGet();
+            logger.debug("Flushed {} search logs in {} ms", batch.size(), lastFlushMillis);
+        }
+    }
+
+    private void replay() {
+        long backoff = retryBackoffMs;
+        while (running) {
+            try {
+                SearchLogSpool.Batch batch = spool.read(bulkSize);
+                if (batch.isEmpty()) {
+                    Thread.sleep(flushIntervalMs);
+                    continue;
+                }
+
+                int failures = bulk(batch.getRecords(), batch.getIds());
+                spool.commit(batch.getEnd());
+                indexed.addAndGet(batch.getRecords().size() - failures);
+                failed.addAndGet(failures);
+                replayed.addAndGet(batch.getRecords().size());
+                elasticsearchHealthy = true;
+                backoff = retryBackoffMs;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                elasticsearchHealthy = false;
+                logger.warn("Search log replay failed, retrying in {} ms: {}", backoff, e.getMessage());
+                try {
+                    awaitHealthy(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = Math.min(backoff * 2, maxRetryBackoffMs);
+            }
+        }
+    }
+
+    private void awaitHealthy(long backoff) throws InterruptedException {
+        while (running) {
+            Thread.sleep(backoff);
+            try {
+                if (elasticConfiguration.getElasticClient().ping(RequestOptions.DEFAULT)) return;
+            } catch (IOException e) {
+                logger.debug("Elasticsearch still unavailable: {}", e.getMessage());
+            }
+            backoff = Math.min(backoff * 2, maxRetryBackoffMs);
+        }
+    }
+
+    /**
+     * Indexes the documents, under the given ids when they come from the spool so a retried batch overwrites what
+     * an earlier attempt already indexed. A rejected item fails the whole batch for a retry.
+     */
+    private int bulk(List<byte[]> documents, List<String> ids) throws IOException {
+        BulkRequest bulkRequest = new BulkRequest();
+        for (int i = 0; i < documents.size(); i++) {
+            IndexRequest indexRequest = new IndexRequest(topSearchedIndex).source(documents.get(i), XContentType.JSON);
+            if (ids != null) {
+                indexRequest.id(ids.get(i));
+            }
+            bulkRequest.add(indexRequest);
+        }
+        BulkResponse response = elasticConfiguration.getElasticClient().bulk(bulkRequest, RequestOptions.DEFAULT);
+        if (!response.hasFailures()) return 0;
+
+        int failures = 0;
+        for (BulkItemResponse item : response.getItems()) {
+            if (!item.isFailed()) continue;
+            if (item.status() == RestStatus.TOO_MANY_REQUESTS || item.status() == RestStatus.SERVICE_UNAVAILABLE) {
+                throw new IOException("Search log bulk rejected: " + item.getFailureMessage());
+            }
+            failures++;
+        }
+        logger.warn("Search log bulk had {} failures: {}", failures, response.buildFailureMessage());
+        return failures;
+    }
+
+    private byte[] toJson(SearchLog searchLog) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(searchLog);
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getEnqueuedCount() {
+        return enqueued.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getIndexedCount() {
+        return indexed.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getSpooledCount() {
+        return spooled.get();
+    }
+
+    public long getReplayedCount() {
+        return replayed.get();
+    }
+
+    public long getSpoolPendingBytes() {
+        return spool.getPendingBytes();
+    }
+
+    public boolean isElasticsearchHealthy() {
+        return elasticsearchHealthy;
+    }
+
+    public long getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    public double getAverageFlushMillis() {
+        long count = flushCount.get();
+        return count == 0 ? 0 : flushNanos.get() / 1_000_000.0 / count;
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.searchAPI.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Segmented, memory-mapped append-only spool for search-log documents.
+ * Each record is stored as [length][crc32][bytes]; a length of -1 marks a rolled segment.
+ * The replay offset is persisted with an atomic rename so a crash never loses or skips committed records.
+ * Each record read back carries an id made of the spool's own id, its segment and its offset, so records that are
+ * replayed again after a failed or partly rejected bulk overwrite their earlier copies instead of duplicating them.
+ */
+@Component
+public class SearchLogSpool {
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Position {
+        private final long segment;
+        private final int offset;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Batch {
+        private final List<byte[]> records;
+        private final List<String> ids;
+        private final Position end;
+
+        public boolean isEmpty() {
+            return records.isEmpty();
+        }
+    }
+
+    private static final int HEADER_BYTES = 8;
+    private static final int ROLL_MARKER = -1;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String OFFSET_FILE = "offset";
+    private static final String ID_FILE = "id";
+
+    @Value("${topsearched.spool.enabled:false}")
+    private boolean enabled;
+
+    @Value("${topsearched.spool.dir:spool/search-logs}")
+    private String directory;
+
+    @Value("${topsearched.spool.segmentBytes:16777216}")
+    private int segmentBytes;
+
+    @Value("${topsearched.spool.maxSegments:64}")
+    private int maxSegments;
+
+    private final Logger logger = LoggerFactory.getLogger(SearchLogSpool.class);
+
+    private Path root;
+    private String spoolId;
+    private MappedByteBuffer writeBuffer;
+    private volatile long writeSegment;
+    private volatile int writePosition;
+
+    private MappedByteBuffer readBuffer;
+    private long readBufferSegment = -1;
+    private volatile Position committed;
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) return;
+
+        root = Paths.get(directory);
+        Files.createDirectories(root);
+        spoolId = readSpoolId();
+        List<Long> segments = listSegments();
+
+        if (segments.isEmpty()) {
+            openWriteSegment(0);
+        } else {
+            long last = segments.get(segments.size() - 1);
+            openWriteSegment(last);
+            int position = recover(writeBuffer);
+            if (position < 0) {
+                openWriteSegment(last + 1);
+            } else {
+                writePosition = position;
+            }
+        }
+
+        committed = readOffset(segments.isEmpty() ? 0 : segments.get(0));
+        logger.info("Opened search log spool {} at segment {} position {}, replay offset {}:{}",
+                root, writeSegment, writePosition, committed.getSegment(), committed.getOffset());
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (writeBuffer != null) {
+            writeBuffer.force();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized void append(List<byte[]> records) throws IOException {
+        for (byte[] record : records) {
+            int required = HEADER_BYTES + record.length;
+            if (required > segmentBytes) {
+                logger.warn("Search log record of {} bytes exceeds spool segment size, skipping", record.length);
+                continue;
+            }
+            if (writePosition + required > segmentBytes) {
+                roll();
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(record);
+            int position = writePosition;
+            writeBuffer.position(position + 4);
+            writeBuffer.putInt((int) crc.getValue());
+            writeBuffer.put(record);
+            writeBuffer.putInt(position, record.length);
+            writePosition = position + required;
+        }
+        writeBuffer.force();
+    }
+
+    public synchronized Batch read(int maxRecords) throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        long segment = committed.getSegment();
+        int offset = committed.getOffset();
+
+        while (records.size() < maxRecords) {
+            long endSegment = writeSegment;
+            int endPosition = writePosition;
+            if (segment > endSegment || (segment == endSegment && offset >= endPosition)) break;
+
+            ByteBuffer buffer = readSegment(segment);
+            int length = offset + HEADER_BYTES <= segmentBytes ? buffer.getInt(offset) : ROLL_MARKER;
+            if (length == ROLL_MARKER || length == 0) {
+                if (segment == endSegment) break;
+                segment++;
+                offset = 0;
+                continue;
+            }
+
+            byte[] record = new byte[length];
+            buffer.get(offset + HEADER_BYTES, record);
+            CRC32 crc = new CRC32();
+            crc.update(record);
+            if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                logger.error("Corrupt search log record in segment {} at {}, skipping rest of segment", segment, offset);
+                if (segment == endSegment) break;
+                segment++;
+                offset = 0;
+                continue;
+            }
+
+            records.add(record);
+            ids.add(spoolId + "-" + segment + "-" + offset);
+            offset += HEADER_BYTES + length;
+        }
+        return new Batch(records, ids, new Position(segment, offset));
+    }
+
+    public synchronized void commit(Position position) throws IOException {
+        if (position.getSegment() < committed.getSegment()
+                || (position.getSegment() == committed.getSegment() && position.getOffset() < committed.getOffset())) {
+            return;
+        }
+        ByteBuffer data = ByteBuffer.allocate(12).putLong(position.getSegment()).putInt(position.getOffset());
+        Path temp = root.resolve(OFFSET_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(data.flip());
+            channel.force(true);
+        }
+        Files.move(temp, root.resolve(OFFSET_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        committed = position;
+
+        for (long segment : listSegments()) {
+            if (segment < position.getSegment()) {
+                deleteSegment(segment);
+            }
+        }
+    }
+
+    public long getPendingSegments() {
+        return enabled ? writeSegment - committed.getSegment() + 1 : 0;
+    }
+
+    public long getPendingBytes() {
+        if (!enabled) return 0;
+        Position position = committed;
+        return (writeSegment - position.getSegment()) * (long) segmentBytes + writePosition - position.getOffset();
+    }
+
+    /**
+     * The committed position as a byte offset across segments. It only grows, so a change means spooled records
+     * were replayed.
+     */
+    public long getCommittedPosition() {
+        if (!enabled) return 0;
+        Position position = committed;
+        return position.getSegment() * segmentBytes + position.getOffset();
+    }
+
+    private void roll() throws IOException {
+        if (writePosition + 4 <= segmentBytes) {
+            writeBuffer.putInt(writePosition, ROLL_MARKER);
+        }
+        writeBuffer.force();
+        openWriteSegment(writeSegment + 1);
+        enforceMaxSegments();
+    }
+
+    private void enforceMaxSegments() throws IOException {
+        List<Long> segments = listSegments();
+        if (segments.size() <= maxSegments) return;
+
+        long oldestKept = segments.get(segments.size() - maxSegments);
+        logger.warn("Search log spool exceeded {} segments, dropping segments before {}", maxSegments, oldestKept);
+        commit(new Position(oldestKept, 0));
+    }
+
+    private void openWriteSegment(long segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            writeBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        writePosition = 0;
+        writeSegment = segment;
+    }
+
+    private ByteBuffer readSegment(long segment) throws IOException {
+        if (segment != readBufferSegment) {
+            try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+                readBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, segmentBytes);
+            }
+            readBufferSegment = segment;
+        }
+        return readBuffer;
+    }
+
+    private int recover(ByteBuffer buffer) {
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segmentBytes) {
+            int length = buffer.getInt(offset);
+            if (length == ROLL_MARKER) return -1;
+            if (length <= 0 || offset + HEADER_BYTES + length > segmentBytes) break;
+
+            byte[] record = new byte[length];
+            buffer.get(offset + HEADER_BYTES, record);
+            CRC32 crc = new CRC32();
+            crc.update(record);
+            if ((int) crc.getValue() != buffer.getInt(offset + 4)) break;
+            offset += HEADER_BYTES + length;
+        }
+        return offset;
+    }
+
+    /**
+     * Segment numbers restart when the spool directory is recreated, so ids are prefixed with a random id kept
+     * alongside the segments.
+     */
+    private String readSpoolId() throws IOException {
+        Path path = root.resolve(ID_FILE);
+        if (Files.exists(path)) {
+            return Files.readString(path, StandardCharsets.UTF_8).trim();
+        }
+        String id = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+        Path temp = root.resolve(ID_FILE + ".tmp");
+        Files.writeString(temp, id, StandardCharsets.UTF_8);
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return id;
+    }
+
+    private Position readOffset(long firstSegment) throws IOException {
+        Path path = root.resolve(OFFSET_FILE);
+        if (!Files.exists(path)) {
+            return new Position(firstSegment, 0);
+        }
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+        Position position = new Position(data.getLong(), data.getInt());
+        return position.getSegment() < firstSegment ? new Position(firstSegment, 0) : position;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(root)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void deleteSegment(long segment) throws IOException {
+        if (segment == readBufferSegment) {
+            readBuffer = null;
+            readBufferSegment = -1;
+        }
+        Files.deleteIfExists(segmentPath(segment));
+    }
+
+    private Path segmentPath(long segment) {
+        return root.resolve(String.format("%020d%s", segment, SEGMENT_SUFFIX));
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.searchAPI.service;
+
+import com.example.searchAPI.config.ElasticConfiguration;
+import com.example.searchAPI.constant.execution.Endpoint;
+import com.example.searchAPI.constant.search.Stage;
+import com.example.searchAPI.model.SearchResult;
+import com.example.searchAPI.resilience.ResilienceGuard;
+import com.example.searchAPI.resilience.ResilienceRegistry;
+import com.example.searchAPI.validator.ForbiddenWordValidator;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Micrometer instrumentation of the search pipeline, published through {@code /actuator/prometheus}.
+ * Each request is timed per {@link Stage}; the Elasticsearch stage is split into the server-side {@code took}
+ * and the client-side overhead around it. The counters kept by the other components are exposed as gauges.
+ * Requests slower than {@code search.metrics.slowQuery.thresholdMs} are logged, sampled, with their query and
+ * stage breakdown.
+ */
+@Component
+public class SearchMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ForbiddenWordValidator forbiddenWordValidator;
+
+    @Autowired
+    private SearchLogService searchLogService;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private QueryTemplateCache queryTemplateCache;
+
+    @Autowired
+    private ShardCacheStats shardCacheStats;
+
+    @Autowired
+    private ElasticConfiguration elasticConfiguration;
+
+    @Autowired
+    private ResilienceRegistry resilienceRegistry;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private AutoCompleteEngine autoCompleteEngine;
+
+    @Value("${search.metrics.slowQuery.thresholdMs:1000}")
+    private long slowQueryThresholdMs;
+
+    @Value("${search.metrics.slowQuery.sampleRate:1.0}")
+    private double slowQuerySampleRate;
+
+    private final Logger logger = LoggerFactory.getLogger(SearchMetrics.class);
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+
+    private Timer successTimer;
+    private Timer cacheHitTimer;
+    private Timer errorTimer;
+    private Timer tookTimer;
+    private Timer overheadTimer;
+    private DistributionSummary hits;
+    private DistributionSummary responseSize;
+
+    @PostConstruct
+    public void init() {
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("search.stage")
+                    .description("Time spent in each stage of a search request")
+                    .tag("stage", stage.get())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        successTimer = requestTimer("success");
+        cacheHitTimer = requestTimer("cache_hit");
+        errorTimer = requestTimer("error");
+        tookTimer = Timer.builder("search.elasticsearch.took")
+                .description("Server-side search time reported by Elasticsearch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        overheadTimer = Timer.builder("search.elasticsearch.overhead")
+                .description("Elasticsearch call time not covered by took: queueing, network and (de)serialization")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        hits = DistributionSummary.builder("search.hits")
+                .description("Total hits per search")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        responseSize = DistributionSummary.builder("search.response.size")
+                .description("Estimated size of the returned documents and highlights")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        bindForbiddenWords();
+        bindSearchLog();
+        bindCache();
+        bindShardCaches();
+        bindConnectionPool();
+        bindResilience();
+        bindCoalescing();
+        bindAutoComplete();
+    }
+
+    SearchTrace start() {
+        return new SearchTrace();
+    }
+
+    void completed(SearchTrace trace, SearchResult result) {
+        long elapsedNanos = trace.elapsedNanos();
+        (trace.isCacheHit() ? cacheHitTimer : successTimer).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        record(trace);
+        if (result.getTotalHits() != null) {
+            hits.record(result.getTotalHits());
+        }
+        responseSize.record(SearchResultCache.estimateBytes(result));
+        logIfSlow(trace, elapsedNanos, null);
+    }
+
+    void failed(SearchTrace trace, Throwable error) {
+        Throwable cause = ElasticsearchExecutor.unwrap(error);
+        long elapsedNanos = trace.elapsedNanos();
+        errorTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        record(trace);
+        meterRegistry.counter("search.errors", "type", cause.getClass().getSimpleName()).increment();
+        logIfSlow(trace, elapsedNanos, cause);
+    }
+
+    private Timer requestTimer(String outcome) {
+        return Timer.builder("search.requests")
+                .description("End-to-end search latency by outcome")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private void record(SearchTrace trace) {
+        for (Map.Entry<Stage, Long> stage : trace.getStageNanos().entrySet()) {
+            stageTimers.get(stage.getKey()).record(stage.getValue(), TimeUnit.NANOSECONDS);
+        }
+        Long elasticsearchNanos = trace.getStageNanos().get(Stage.ELASTICSEARCH);
+        if (trace.getTookMillis() >= 0 && elasticsearchNanos != null) {
+            long tookNanos = TimeUnit.MILLISECONDS.toNanos(trace.getTookMillis());
+            tookTimer.record(tookNanos, TimeUnit.NANOSECONDS);
+            overheadTimer.record(Math.max(0, elasticsearchNanos - tookNanos), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void logIfSlow(SearchTrace trace, long elapsedNanos, Throwable error) {
+        if (elapsedNanos < TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMs)) return;
+        if (ThreadLocalRandom.current().nextDouble() >= slowQuerySampleRate) return;
+
+        StringBuilder stages = new StringBuilder();
+        for (Map.Entry<Stage, Long> stage : trace.getStageNanos().entrySet()) {
+            if (stages.length() > 0) stages.append(", ");
+            stages.append(stage.getKey().get()).append('=').append(TimeUnit.NANOSECONDS.toMillis(stage.getValue())).append("ms");
+        }
+        logger.warn("Slow search: {} ms in total, Elasticsearch took {} ms ({}){}: {}",
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), trace.getTookMillis(), stages,
+                error == null ? "" : " failing with " + error.getClass().getSimpleName(),
+                trace.getQuery() == null ? "-" : trace.getQuery().toString());
+    }
+
+    private void bindForbiddenWords() {
+        gauge("forbidden.patterns", forbiddenWordValidator, ForbiddenWordValidator::getPatternCount);
+        counter("forbidden.matches", forbiddenWordValidator, ForbiddenWordValidator::getMatchCount);
+        gauge("forbidden.match.average.nanos", forbiddenWordValidator, ForbiddenWordValidator::getAverageMatchNanos);
+    }
+
+    private void bindSearchLog() {
+        gauge("searchlog.queue.depth", searchLogService, SearchLogService::getQueueDepth);
+        counter("searchlog.enqueued", searchLogService, SearchLogService::getEnqueuedCount);
+        counter("searchlog.dropped", searchLogService, SearchLogService::getDroppedCount);
+        counter("searchlog.indexed", searchLogService, SearchLogService::getIndexedCount);
+        counter("searchlog.failed", searchLogService, SearchLogService::getFailedCount);
+        counter("searchlog.spooled", searchLogService, SearchLogService::getSpooledCount);
+        counter("searchlog.replayed", searchLogService, SearchLogService::getReplayedCount);
+        gauge("searchlog.spool.pending.bytes", searchLogService, SearchLogService::getSpoolPendingBytes);
+        gauge("searchlog.flush.average.millis", searchLogService, SearchLogService::getAverageFlushMillis);
+        gauge("searchlog.elasticsearch.healthy", searchLogService, service -> service.isElasticsearchHealthy() ? 1 : 0);
+    }
+
+    private void bindCache() {
+        counter("search.cache.hits", searchResultCache, cache -> cache.getStats().hitCount());
+        counter("search.cache.misses", searchResultCache, cache -> cache.getStats().missCount());
+        counter("search.cache.evictions", searchResultCache, cache -> cache.getStats().evictionCount());
+        gauge("search.cache.size", searchResultCache, SearchResultCache::getEstimatedSize);
+        gauge("search.cache.weight.bytes", searchResultCache, SearchResultCache::getWeightedSize);
+        counter("search.query.cache.hits", queryTemplateCache, cache -> cache.getStats().hitCount());
+        counter("search.query.cache.misses", queryTemplateCache, cache -> cache.getStats().missCount());
+        gauge("search.query.cache.size", queryTemplateCache, QueryTemplateCache::getEstimatedSize);
+    }
+
+    private void bindShardCaches() {
+        counter("elasticsearch.request_cache.hits", shardCacheStats, stats -> stats.getRequestCache().getHitCount());
+        counter("elasticsearch.request_cache.misses", shardCacheStats, stats -> stats.getRequestCache().getMissCount());
+        counter("elasticsearch.request_cache.evictions", shardCacheStats, stats -> stats.getRequestCache().getEvictions());
+        gauge("elasticsearch.request_cache.memory.bytes", shardCacheStats, stats -> stats.getRequestCache().getMemoryBytes());
+        counter("elasticsearch.query_cache.hits", shardCacheStats, stats -> stats.getQueryCache().getHitCount());
+        counter("elasticsearch.query_cache.misses", shardCacheStats, stats -> stats.getQueryCache().getMissCount());
+        counter("elasticsearch.query_cache.evictions", shardCacheStats, stats -> stats.getQueryCache().getEvictions());
+        gauge("elasticsearch.query_cache.memory.bytes", shardCacheStats, stats -> stats.getQueryCache().getMemoryBytes());
+    }
+
+    private void bindConnectionPool() {
+        gauge("elasticsearch.pool.leased", elasticConfiguration, ElasticConfiguration::getLeasedConnections);
+        gauge("elasticsearch.pool.pending", elasticConfiguration, ElasticConfiguration::getPendingConnections);
+        gauge("elasticsearch.pool.available", elasticConfiguration, ElasticConfiguration::getAvailableConnections);
+        gauge("elasticsearch.pool.max", elasticConfiguration, ElasticConfiguration::getMaxConnections);
+    }
+
+    private void bindResilience() {
+        for (ResilienceGuard guard : resilienceRegistry.getGuards()) {
+            String endpoint = guard.getName();
+            Gauge.builder("resilience.limit", guard, g -> g.getLimiter().getLimit()).tag("endpoint", endpoint).register(meterRegistry);
+            Gauge.builder("resilience.inflight", guard, g -> g.getLimiter().getInFlight()).tag("endpoint", endpoint).register(meterRegistry);
+            Gauge.builder("resilience.breaker.state", guard, g -> g.getCircuitBreaker().getState().ordinal())
+                    .description("0 closed, 1 open, 2 half open")
+                    .tag("endpoint", endpoint).register(meterRegistry);
+            FunctionCounter.builder("resilience.limit.rejected", guard, g -> g.getLimiter().getRejectedCount()).tag("endpoint", endpoint).register(meterRegistry);
+            FunctionCounter.builder("resilience.breaker.rejected", guard, g -> g.getCircuitBreaker().getRejectedCount()).tag("endpoint", endpoint).register(meterRegistry);
+            FunctionCounter.builder("resilience.breaker.opened", guard, g -> g.getCircuitBreaker().getOpenedCount()).tag("endpoint", endpoint).register(meterRegistry);
+            FunctionCounter.builder("resilience.hedged", guard, ResilienceGuard::getHedgedCount).tag("endpoint", endpoint).register(meterRegistry);
+            FunctionCounter.builder("resilience.hedge.wins", guard, ResilienceGuard::getHedgeWinCount).tag("endpoint", endpoint).register(meterRegistry);
+        }
+    }
+
+    private void bindCoalescing() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            FunctionCounter.builder("coalescing.leaders", requestCoalescer, coalescer -> coalescer.getLeaderCount(endpoint)).tag("endpoint", endpoint.get()).register(meterRegistry);
+            FunctionCounter.builder("coalescing.followers", requestCoalescer, coalescer -> coalescer.getFollowerCount(endpoint)).tag("endpoint", endpoint.get()).register(meterRegistry);
+            FunctionCounter.builder("coalescing.timeouts", requestCoalescer, coalescer -> coalescer.getTimeoutCount(endpoint)).tag("endpoint", endpoint.get()).register(meterRegistry);
+            Gauge.builder("coalescing.ratio", requestCoalescer, coalescer -> coalescer.getCoalescingRatio(endpoint)).tag("endpoint", endpoint.get()).register(meterRegistry);
+        }
+        gauge("coalescing.inflight", requestCoalescer, RequestCoalescer::getInFlightCount);
+    }
+
+    private void bindAutoComplete() {
+        gauge("autocomplete.index.terms", autoCompleteEngine, AutoCompleteEngine::getTermCount);
+        gauge("autocomplete.index.bytes", autoCompleteEngine, AutoCompleteEngine::getEstimatedBytes);
+        gauge("autocomplete.index.build.millis", autoCompleteEngine, AutoCompleteEngine::getLastBuildTimeMillis);
+    }
+
+    private <T> void gauge(String name, T source, ToDoubleFunction<T> value) {
+        Gauge.builder(name, source, value).register(meterRegistry);
+    }
+
+    private <T> void counter(String name, T source, ToDoubleFunction<T> value) {
+        FunctionCounter.builder(name, source, value).register(meterRegistry);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.searchAPI.service;
+
+import com.example.searchAPI.model.SearchDocument;
+import com.example.searchAPI.model.SearchResult;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PostConstruct;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.elasticsearch.common.text.Text;
+import org.elasticsearch.search.fetch.subphase.highlight.HighlightField;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size-bounded cache of search results keyed by a canonical form of the search criteria.
+ * Caffeine's W-TinyLFU admission keeps one-off queries from evicting popular ones.
+ */
+@Component
+public class SearchResultCache {
+
+    @Getter
+    @ToString
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    public static class Key {
+        private final List<String> keywords;
+        private final List<String> fields;
+        private final String dateRange;
+        private final boolean historical;
+        private final List<String> categories;
+        private final Integer maxDocument;
+        private final Integer nowPage;
+        private final String sortOption;
+        private final String trackTotalHits;
+        private final String highlight;
+        private final List<String> includes;
+        private final List<String> excludes;
+        private final List<String> docValueFields;
+    }
+
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+    private static final int DOCUMENT_FIELD_BYTES = 64;
+
+    @Value("${search.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.cache.maxWeightBytes:67108864}")
+    private long maxWeightBytes;
+
+    @Value("${search.cache.ttlSeconds:60}")
+    private long ttlSeconds;
+
+    @Value("${search.cache.historicalTtlSeconds:3600}")
+    private long historicalTtlSeconds;
+
+    private Cache<Key, SearchResult> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((Key key, SearchResult result) -> (int) Math.min(Integer.MAX_VALUE, estimateBytes(result)))
+                .expireAfter(new Expiry<Key, SearchResult>() {
+                    @Override
+                    public long expireAfterCreate(Key key, SearchResult result, long currentTime) {
+                        return TimeUnit.SECONDS.toNanos(key.isHistorical() ? historicalTtlSeconds : ttlSeconds);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, SearchResult result, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, result, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, SearchResult result, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public SearchResult get(Key key) {
+        return enabled ? cache.getIfPresent(key) : null;
+    }
+
+    public void put(Key key, SearchResult result) {
+        if (enabled && result.getError() == null) {
+            cache.put(key, result);
+        }
+    }
+
+    public void invalidate(Key key) {
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long getEstimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    public long getWeightedSize() {
+        return cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+    }
+
+    /**
+     * Rough size of a result: sources, highlight fragments, doc value fields and a fixed overhead per document.
+     */
+    static long estimateBytes(SearchResult result) {
+        long bytes = ENTRY_OVERHEAD_BYTES;
+        if (result.getDocuments() != null) {
+            bytes += weigh(result.getDocuments());
+        }
+        if (result.getCategories() != null) {
+            for (List<SearchDocument> documents : result.getCategories().values()) {
+                bytes += weigh(documents);
+            }
+        }
+        return bytes;
+    }
+
+    private static long weigh(List<SearchDocument> documents) {
+        long bytes = 0;
+        for (SearchDocument document : documents) {
+            bytes += ENTRY_OVERHEAD_BYTES;
+            if (document.getSource() != null) {
+                bytes += document.getSource().length();
+            }
+            for (HighlightField highlightField : document.getHighlightFields().values()) {
+                for (Text fragment : highlightField.fragments()) {
+                    bytes += 2L * fragment.string().length();
+                }
+            }
+            bytes += (long) DOCUMENT_FIELD_BYTES * document.getDocumentFields().size();
+        }
+        return bytes;
+    }
+}
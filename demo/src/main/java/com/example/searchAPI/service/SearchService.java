@@ -1,187 +1,532 @@
 package com.example.searchAPI.service;
 
-import com.example.searchAPI.config.ElasticConfiguration;
+import com.example.searchAPI.constant.execution.Endpoint;
 import com.example.searchAPI.constant.search.*;
 import com.example.searchAPI.constant.topsearched.TopSearched;
-import com.example.searchAPI.controller.ElasticsearchController;
+import com.example.searchAPI.model.BatchSearchResult;
+import com.example.searchAPI.model.PageToken;
 import com.example.searchAPI.model.SearchCriteria;
+import com.example.searchAPI.model.SearchDocument;
+import com.example.searchAPI.model.SearchResult;
+import com.example.searchAPI.query.KeywordParser;
+import com.example.searchAPI.query.KeywordQuery;
 import com.example.searchAPI.validator.ForbiddenWordValidator;
 import com.example.searchAPI.validator.GenericValidator;
-import org.elasticsearch.action.index.IndexRequest;
-import org.elasticsearch.action.index.IndexResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.apache.lucene.search.TotalHits;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
-import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.common.document.DocumentField;
 import org.elasticsearch.common.lucene.search.function.CombineFunction;
-import org.elasticsearch.common.text.Text;
-import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.regex.Regex;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.index.query.RangeQueryBuilder;
 import org.elasticsearch.index.query.functionscore.FunctionScoreQueryBuilder;
-import org.elasticsearch.index.search.MatchQuery;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.builder.PointInTimeBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.fetch.subphase.highlight.HighlightBuilder;
-import org.elasticsearch.search.fetch.subphase.highlight.HighlightField;
 import org.elasticsearch.search.sort.SortBuilders;
 import org.elasticsearch.search.sort.SortOrder;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.text.SimpleDateFormat;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
-import java.util.Date;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class SearchService {
 
-    @Autowired
-    private ElasticConfiguration elasticConfiguration;
+    @RequiredArgsConstructor
+    private static class BatchEntry {
+        private final int index;
+        private final SearchCriteria criteria;
+        private final SearchTrace trace;
+        private final SearchResultCache.Key cacheKey;
+        private final boolean byCategory;
+        private final boolean spliceHighlights;
+        private final int first;
+        private final int count;
+    }
 
     @Value("${search.index}")
     private String index;
 
-    @Value("${topsearched.index}")
-    private String topSearchedIndex;
+    @Autowired
+    private ElasticsearchExecutor elasticsearchExecutor;
+
+    @Autowired
+    private SearchLogService searchLogService;
+
+    @Autowired
+    private ForbiddenWordValidator forbiddenWordValidator;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private QueryTemplateCache queryTemplateCache;
+
+    @Autowired
+    private QueryShaper queryShaper;
+
+    @Autowired
+    private PointInTimeService pointInTimeService;
+
+    @Autowired
+    private SearchExporter searchExporter;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private SearchMetrics searchMetrics;
+
+    @Value("${search.execution.timeoutMs.search:5000}")
+    private long timeoutMs;
+
+    @Value("${search.category.field:ctgry}")
+    private String categoryField;
+
+    @Value("${search.cursor.keepAlive:1m}")
+    private String cursorKeepAlive;
+
+    @Value("${search.cursor.tiebreaker:_id}")
+    private String cursorTiebreaker;
 
-    @Value("${search.forbiddenPath}")
-    private String forbiddenPath;
+    @Value("${search.trackTotalHits.default:capped}")
+    private String defaultTrackTotalHits;
 
-    private final Logger logger = LoggerFactory.getLogger(ElasticsearchController.class);
+    @Value("${search.trackTotalHits.cap:10000}")
+    private int trackTotalHitsCap;
 
-    public List<String> search(SearchCriteria criteria) {
+    @Value("${search.highlight.type:unified}")
+    private String defaultHighlighter;
+
+    @Value("${search.highlight.fields:}")
+    private String highlightFields;
+
+    @Value("${search.highlight.fragmentCount:3}")
+    private int defaultFragmentCount;
+
+    @Value("${search.highlight.fragmentSize:150}")
+    private int defaultFragmentSize;
+
+    @Value("${search.highlight.maxFragmentCount:10}")
+    private int maxFragmentCount;
+
+    @Value("${search.highlight.maxFragmentSize:1000}")
+    private int maxFragmentSize;
+
+    @Value("${search.batch.maxSize:10}")
+    private int maxBatchSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public CompletableFuture<SearchResult> search(SearchCriteria criteria) {
+        SearchTrace trace = searchMetrics.start();
         try {
-            SearchRequest searchRequest = new SearchRequest(index);
+            checkForbiddenWord(criteria.getKeyword());
+            trace.lap(Stage.FORBIDDEN_WORD);
+            KeywordQuery keywordQuery = KeywordParser.parse(criteria.getKeyword());
+
+            boolean byCategory = !(criteria.getCategories().contains(Category.ALL.get()) || criteria.getCategories().isEmpty());
+            boolean cursorMode = Boolean.TRUE.equals(criteria.getCursor()) || !GenericValidator.isNullOrEmpty(criteria.getPageToken());
+            if (byCategory && cursorMode) {
+                throw new IllegalArgumentException("커서 페이지는 통합(전체) 카테고리 검색에서만 사용할 수 있습니다.");
+            }
+            String criteriaHash = cursorMode ? criteriaHash(criteria, keywordQuery) : null;
+            PageToken resumedToken = cursorMode ? decodePageToken(criteria, criteriaHash) : null;
+            HighlightBuilder highlightBuilder = highlight(criteria);
+            boolean spliceHighlights = spliceHighlights(highlightBuilder);
+
+            SearchResultCache.Key requestKey = cursorMode ? null : cacheKey(criteria, keywordQuery, highlightBuilder);
+            SearchResultCache.Key cacheKey = searchResultCache.isEnabled() ? requestKey : null;
+            SearchResult cached = cacheKey != null ? searchResultCache.get(cacheKey) : null;
+            trace.lap(Stage.CACHE_LOOKUP);
+            if (cached != null) {
+                searchLogService.record(keywordQuery.getSearchTerms());
+                trace.lap(Stage.SEARCH_LOG);
+                trace.cacheHit();
+                searchMetrics.completed(trace, cached);
+                return CompletableFuture.completedFuture(cached);
+            }
+
+            SearchRequest searchRequest = cursorMode ? new SearchRequest() : new SearchRequest(index);
+            // Routed by the query rather than the page, so paging through results stays on the same shard copies.
+            List<Object> preferenceKey = cursorMode ? null : Arrays.asList(keywordQuery.getNormalizedClauses(), criteria.getFieldDesignation(), criteria.getPeriod());
             SearchSourceBuilder sourceBuilder = new SearchSourceBuilder();
 
-            checkForbiddenWord(criteria.getKeyword());
-            indexSearchTerm(elasticConfiguration, criteria);
-            buildAdvancedSearchQuery(criteria.getKeyword(), sourceBuilder, criteria.getFieldDesignation());
-            setDateRange(criteria.getPeriod(), sourceBuilder);
-            setPage(criteria.getMaxDocument(), criteria.getNowPage(), sourceBuilder);
-            sort(criteria.getSortOption(), sourceBuilder, searchRequest);
-            setupHighlighting(sourceBuilder);
-
-            searchRequest.source(sourceBuilder);
-            SearchResponse searchResponse = elasticConfiguration.getElasticClient().search(searchRequest, RequestOptions.DEFAULT);
-            SearchHits hits = searchResponse.getHits();
-
-            List<String> results = processSearchResultsByAllCategories(criteria, hits);
-            if (results != null) return results;
-
-            Map<String, List<String>> categorizedResults = new HashMap<>();
-            processSearchResultsByCategory(criteria, hits, categorizedResults);
-
-            List<String> finalResults = new ArrayList<>();
-            categorizedResults.values().forEach(finalResults::addAll);
-            return finalResults;
+            if (resumedToken == null) {
+                searchLogService.record(keywordQuery.getSearchTerms());
+                trace.lap(Stage.SEARCH_LOG);
+            }
+            buildSource(criteria, keywordQuery, highlightBuilder, resumedToken != null, sourceBuilder, trace);
+
+            CompletableFuture<SearchResult> result;
+            if (byCategory) {
+                result = requestCoalescer.execute(Endpoint.SEARCH, requestKey, () -> cache(cacheKey, searchByCategory(criteria, spliceHighlights, sourceBuilder, preferenceKey, trace)));
+            } else if (cursorMode) {
+                CompletableFuture<PageToken> pageToken = resumedToken != null
+                        ? CompletableFuture.completedFuture(resumedToken)
+                        : pointInTimeService.open(Endpoint.SEARCH, cursorKeepAlive, timeoutMs).thenApply(pointInTimeId -> new PageToken(pointInTimeId, criteriaHash, null));
+                result = pageToken.thenCompose(token -> {
+                    setCursor(token, criteria.getMaxDocument(), sourceBuilder, searchRequest);
+                    trace.lap(Stage.PAGING);
+                    return elasticsearchExecutor.search(Endpoint.SEARCH, searchRequest.source(sourceBuilder), timeoutMs)
+                            .thenApply(searchResponse -> {
+                                received(trace, searchResponse.getTook());
+                                SearchResult searchResult = buildResult(criteria, spliceHighlights, searchResponse)
+                                        .nextPageToken(nextPageToken(token, searchResponse, criteria.getMaxDocument()))
+                                        .build();
+                                trace.lap(Stage.RESULT_PROCESSING);
+                                return searchResult;
+                            });
+                });
+            } else {
+                setPage(criteria.getMaxDocument(), criteria.getNowPage(), sourceBuilder);
+                queryShaper.preferred(searchRequest, preferenceKey);
+                trace.lap(Stage.PAGING);
+                result = requestCoalescer.execute(Endpoint.SEARCH, requestKey, () -> cache(cacheKey,
+                        elasticsearchExecutor.search(Endpoint.SEARCH, searchRequest.source(sourceBuilder), timeoutMs)
+                                .thenApply(searchResponse -> {
+                                    received(trace, searchResponse.getTook());
+                                    SearchResult searchResult = buildResult(criteria, spliceHighlights, searchResponse).build();
+                                    trace.lap(Stage.RESULT_PROCESSING);
+                                    return searchResult;
+                                })));
+            }
+            return result.handle((searchResult, error) -> {
+                if (error != null) {
+                    searchMetrics.failed(trace, error);
+                    return SearchResult.error(ElasticsearchExecutor.errorMessage(error));
+                }
+                searchMetrics.completed(trace, searchResult);
+                return searchResult;
+            });
         } catch (Exception e) {
-            return Collections.singletonList(e.getMessage());
+            searchMetrics.failed(trace, e);
+            return CompletableFuture.completedFuture(SearchResult.error(e.getMessage()));
         }
     }
 
-    private static List<String> processSearchResultsByAllCategories(SearchCriteria criteria, SearchHits hits) {
-        List<String> results = new ArrayList<>();
-        if (criteria.getCategories().contains(Category.ALL.get()) || criteria.getCategories().isEmpty()) {
-            for (SearchHit hit : hits.getHits()) {
-                Map<String, HighlightField> highlightFields = hit.getHighlightFields();
-                Map<String, Object> sourceAsMap = hit.getSourceAsMap();
-                Map<String, String> finalDocument = new HashMap<>();
-
-                sourceAsMap.forEach((key, value) -> {
-                    if (highlightFields.containsKey(key) && highlightFields.get(key).fragments().length > 0) {
-                        String highlightedText = Arrays.stream(highlightFields.get(key).fragments()).map(Text::string).collect(Collectors.joining(" "));
-                        finalDocument.put(key, highlightedText);
-                    } else {
-                        finalDocument.put(key, value.toString());
-                    }
-                });
+    /**
+     * Runs several searches in one {@code _msearch} round trip. Every item is validated and looked up in the result
+     * cache first, and only the misses are sent; an item that fails, up front or in Elasticsearch, gets its own
+     * error without failing the others. A keyword repeated across items is logged once.
+     */
+    public CompletableFuture<BatchSearchResult> batch(List<SearchCriteria> criteriaList) {
+        long startNanos = System.nanoTime();
+        if (GenericValidator.isNullOrEmpty(criteriaList)) {
+            return CompletableFuture.completedFuture(BatchSearchResult.error("검색 조건을 1개 이상 입력하세요."));
+        }
+        if (criteriaList.size() > maxBatchSize) {
+            return CompletableFuture.completedFuture(BatchSearchResult.error("한 번에 최대 " + maxBatchSize + "개의 검색 조건을 요청할 수 있습니다."));
+        }
+
+        BatchSearchResult.Item[] items = new BatchSearchResult.Item[criteriaList.size()];
+        List<BatchEntry> pending = new ArrayList<>();
+        MultiSearchRequest multiSearchRequest = new MultiSearchRequest();
+        Set<List<String>> logged = new HashSet<>();
+        for (int i = 0; i < criteriaList.size(); i++) {
+            SearchCriteria criteria = criteriaList.get(i);
+            SearchTrace trace = searchMetrics.start();
+            try {
+                checkForbiddenWord(criteria.getKeyword());
+                trace.lap(Stage.FORBIDDEN_WORD);
+                KeywordQuery keywordQuery = KeywordParser.parse(criteria.getKeyword());
 
-                StringBuilder result = new StringBuilder("{");
-                finalDocument.forEach((key, value) -> result.append(String.format("\"%s\":\"%s\",", key, value)));
-                if (!finalDocument.isEmpty()) {
-                    result.deleteCharAt(result.length() - 1);
+                if (Boolean.TRUE.equals(criteria.getCursor()) || !GenericValidator.isNullOrEmpty(criteria.getPageToken())) {
+                    throw new IllegalArgumentException("배치 검색에서는 커서 페이지를 사용할 수 없습니다.");
+                }
+                boolean byCategory = !(criteria.getCategories().contains(Category.ALL.get()) || criteria.getCategories().isEmpty());
+                HighlightBuilder highlightBuilder = highlight(criteria);
+
+                SearchResultCache.Key cacheKey = searchResultCache.isEnabled() ? cacheKey(criteria, keywordQuery, highlightBuilder) : null;
+                SearchResult cached = cacheKey != null ? searchResultCache.get(cacheKey) : null;
+                trace.lap(Stage.CACHE_LOOKUP);
+                if (logged.add(keywordQuery.getNormalizedClauses())) {
+                    searchLogService.record(keywordQuery.getSearchTerms());
+                }
+                trace.lap(Stage.SEARCH_LOG);
+                if (cached != null) {
+                    trace.cacheHit();
+                    searchMetrics.completed(trace, cached);
+                    items[i] = new BatchSearchResult.Item(cached, millis(trace.elapsedNanos()), null);
+                    continue;
                 }
-                result.append("}");
 
-                results.add(result.toString());
+                SearchSourceBuilder sourceBuilder = new SearchSourceBuilder();
+                buildSource(criteria, keywordQuery, highlightBuilder, false, sourceBuilder, trace);
+                List<Object> preferenceKey = Arrays.asList(keywordQuery.getNormalizedClauses(), criteria.getFieldDesignation(), criteria.getPeriod());
+                int first = multiSearchRequest.requests().size();
+                if (byCategory) {
+                    addCategoryRequests(criteria, sourceBuilder, preferenceKey, multiSearchRequest);
+                } else {
+                    setPage(criteria.getMaxDocument(), criteria.getNowPage(), sourceBuilder);
+                    multiSearchRequest.add(queryShaper.preferred(new SearchRequest(index).source(sourceBuilder), preferenceKey));
+                }
+                trace.lap(Stage.PAGING);
+                pending.add(new BatchEntry(i, criteria, trace, cacheKey, byCategory, spliceHighlights(highlightBuilder), first, multiSearchRequest.requests().size() - first));
+            } catch (Exception e) {
+                searchMetrics.failed(trace, e);
+                items[i] = new BatchSearchResult.Item(SearchResult.error(e.getMessage()), millis(trace.elapsedNanos()), null);
             }
-            return results;
         }
-        return null;
+
+        CompletableFuture<MultiSearchResponse> response = pending.isEmpty()
+                ? CompletableFuture.completedFuture(null)
+                : elasticsearchExecutor.msearch(Endpoint.SEARCH, multiSearchRequest, timeoutMs);
+        return response.handle((multiSearchResponse, error) -> {
+            for (BatchEntry entry : pending) {
+                items[entry.index] = complete(entry, multiSearchResponse, error);
+            }
+            return BatchSearchResult.builder()
+                    .took(millis(System.nanoTime() - startNanos))
+                    .results(Arrays.asList(items))
+                    .build();
+        });
     }
 
-    private void processSearchResultsByCategory(SearchCriteria criteria, SearchHits hits, Map<String, List<String>> categorizedResults) {
-        boolean searchAllFields = criteria.getFieldDesignation().isEmpty() || (criteria.getFieldDesignation().size() == 1 && Category.ALL.get().equals(criteria.getFieldDesignation().get(0)));
+    private BatchSearchResult.Item complete(BatchEntry entry, MultiSearchResponse multiSearchResponse, Throwable error) {
+        SearchTrace trace = entry.trace;
+        Long took = null;
+        try {
+            if (error != null) throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+
+            MultiSearchResponse.Item[] responses = Arrays.copyOfRange(multiSearchResponse.getResponses(), entry.first, entry.first + entry.count);
+            for (MultiSearchResponse.Item response : responses) {
+                if (response.isFailure()) throw new CompletionException(response.getFailure());
+                took = Math.max(took == null ? 0 : took, response.getResponse().getTook().millis());
+            }
+            trace.lap(Stage.ELASTICSEARCH);
+            trace.took(took);
+            SearchResult searchResult = entry.byCategory
+                    ? processSearchResultsByCategory(entry.criteria, entry.spliceHighlights, responses)
+                    : buildResult(entry.criteria, entry.spliceHighlights, responses[0].getResponse()).build();
+            trace.lap(Stage.RESULT_PROCESSING);
+            if (entry.cacheKey != null) {
+                searchResultCache.put(entry.cacheKey, searchResult);
+            }
+            searchMetrics.completed(trace, searchResult);
+            return new BatchSearchResult.Item(searchResult, millis(trace.elapsedNanos()), took);
+        } catch (RuntimeException e) {
+            searchMetrics.failed(trace, e);
+            return new BatchSearchResult.Item(SearchResult.error(ElasticsearchExecutor.errorMessage(e)), millis(trace.elapsedNanos()), took);
+        }
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * The whole result set of {@code criteria} as newline-delimited JSON documents, for offline consumers. Paging
+     * fields are ignored and nothing is highlighted unless {@code highlight} asks for it. The documents are sorted
+     * on {@code search.cursor.tiebreaker}, after the sort option if there is one; with the default {@code _id} that
+     * sort loads {@code _id} fielddata onto the heap, the most expensive sort there is, so point the tiebreaker at a
+     * unique keyword field with doc values before exporting large result sets.
+     */
+    public StreamingResponseBody export(SearchCriteria criteria) {
+        checkForbiddenWord(criteria.getKeyword());
+        if (criteria.getCategories() != null && !(criteria.getCategories().contains(Category.ALL.get()) || criteria.getCategories().isEmpty())) {
+            throw new IllegalArgumentException("내보내기는 통합(전체) 카테고리 검색에서만 사용할 수 있습니다.");
+        }
+        KeywordQuery keywordQuery = KeywordParser.parse(criteria.getKeyword());
+
+        SearchSourceBuilder sourceBuilder = new SearchSourceBuilder();
+        sourceBuilder.query(queryTemplateCache.query(keywordQuery, criteria.getFieldDesignation()));
+        project(criteria, sourceBuilder);
+        setDateRange(criteria.getPeriod(), sourceBuilder);
+        if (!GenericValidator.isNullOrEmpty(criteria.getSortOption())) {
+            sort(criteria.getSortOption(), sourceBuilder);
+            if (criteria.getSortOption().equals(Sort.ACCURACY.get())) {
+                sourceBuilder.sort(SortBuilders.scoreSort());
+            }
+        }
+        HighlightBuilder highlightBuilder = GenericValidator.isNullOrEmpty(criteria.getHighlight()) ? null : highlight(criteria);
+        sourceBuilder.highlighter(highlightBuilder);
+        boolean spliceHighlights = spliceHighlights(highlightBuilder);
+
+        return outputStream -> searchExporter.export(sourceBuilder,
+                hit -> new SearchDocument(hit.getSourceRef(), hit.getHighlightFields(), null, documentFields(criteria, hit), spliceHighlights), outputStream);
+    }
+
+    private static void received(SearchTrace trace, TimeValue took) {
+        trace.lap(Stage.ELASTICSEARCH);
+        trace.took(took.millis());
+    }
+
+    private CompletableFuture<SearchResult> cache(SearchResultCache.Key cacheKey, CompletableFuture<SearchResult> result) {
+        if (cacheKey == null) return result;
 
+        return result.thenApply(searchResult -> {
+            searchResultCache.put(cacheKey, searchResult);
+            return searchResult;
+        });
+    }
+
+    private static SearchResult.SearchResultBuilder buildResult(SearchCriteria criteria, boolean spliceHighlights, SearchResponse searchResponse) {
+        SearchHits hits = searchResponse.getHits();
+        SearchResult.SearchResultBuilder result = SearchResult.builder();
+        if (hits.getTotalHits() != null) {
+            result.totalHits(hits.getTotalHits().value).totalHitsRelation(hits.getTotalHits().relation == TotalHits.Relation.EQUAL_TO ? "eq" : "gte");
+        }
+        List<SearchDocument> documents = processSearchResultsByAllCategories(criteria, spliceHighlights, hits);
+        return result.documents(documents).highlightedFields(highlightedFields(criteria, documents));
+    }
+
+    private CompletableFuture<SearchResult> searchByCategory(SearchCriteria criteria, boolean spliceHighlights, SearchSourceBuilder sourceBuilder, List<Object> preferenceKey, SearchTrace trace) {
+        MultiSearchRequest multiSearchRequest = new MultiSearchRequest();
+        addCategoryRequests(criteria, sourceBuilder, preferenceKey, multiSearchRequest);
+        trace.lap(Stage.PAGING);
+
+        return elasticsearchExecutor.msearch(Endpoint.SEARCH, multiSearchRequest, timeoutMs)
+                .thenApply(multiSearchResponse -> {
+                    received(trace, multiSearchResponse.getTook());
+                    SearchResult searchResult = processSearchResultsByCategory(criteria, spliceHighlights, multiSearchResponse.getResponses());
+                    trace.lap(Stage.RESULT_PROCESSING);
+                    return searchResult;
+                });
+    }
+
+    private void addCategoryRequests(SearchCriteria criteria, SearchSourceBuilder sourceBuilder, List<Object> preferenceKey, MultiSearchRequest multiSearchRequest) {
+        List<String> categories = criteria.getCategories();
+        if (criteria.getCategoryMaxCounts() == null || criteria.getCategoryMaxCounts().size() != categories.size()) {
+            throw new IllegalArgumentException("카테고리별 최대 출력 건수를 카테고리 수만큼 입력하세요.");
+        }
+
+        for (int i = 0; i < categories.size(); i++) {
+            int maxCount = criteria.getCategoryMaxCounts().get(i);
+            // Facets report how many documents each category holds, so they are counted exactly whatever
+            // trackTotalHits asks of the pages.
+            SearchSourceBuilder categorySourceBuilder = sourceBuilder.shallowCopy()
+                    .query(QueryBuilders.boolQuery()
+                            .must(sourceBuilder.query())
+                            .filter(QueryBuilders.termQuery(categoryField, categories.get(i))))
+                    .trackTotalHits(true);
+            setPage(maxCount, criteria.getNowPage(), categorySourceBuilder);
+            multiSearchRequest.add(queryShaper.preferred(new SearchRequest(index).source(categorySourceBuilder), Arrays.asList(preferenceKey, categories.get(i))));
+        }
+    }
+
+    static List<SearchDocument> processSearchResultsByAllCategories(SearchCriteria criteria, boolean spliceHighlights, SearchHits hits) {
+        List<SearchDocument> results = new ArrayList<>(hits.getHits().length);
         for (SearchHit hit : hits.getHits()) {
-            String category = (String) hit.getSourceAsMap().get(Category.CATEGORY.get());
-            if (criteria.getCategories().contains(category)) {
-                int index = criteria.getCategories().indexOf(category);
-                int maxCount = criteria.getCategoryMaxCounts().get(index);
-                List<String> resultsForCategory = categorizedResults.computeIfAbsent(category, k -> new ArrayList<>());
-
-                if (resultsForCategory.size() < maxCount) {
-                    Map<String, Object> sourceAsMap = hit.getSourceAsMap();
-                    Map<String, HighlightField> highlightFields = hit.getHighlightFields();
-
-                    Map<String, String> documentResults = new HashMap<>();
-
-                    if (searchAllFields) {
-                        sourceAsMap.forEach((key, value) -> {
-                            if (highlightFields.containsKey(key) && highlightFields.get(key).fragments().length > 0) {
-                                String highlightedText = Arrays.stream(highlightFields.get(key).fragments()).map(Text::string).collect(Collectors.joining(" "));
-                                documentResults.put(key, highlightedText);
-                            } else {
-                                documentResults.put(key, value.toString());
-                            }
-                        });
-                    } else {
-                        criteria.getFieldDesignation().forEach(field -> {
-                            if (sourceAsMap.containsKey(field)) {
-                                if (highlightFields.containsKey(field) && highlightFields.get(field).fragments().length > 0) {
-                                    String highlightedText = Arrays.stream(highlightFields.get(field).fragments()).map(Text::string).collect(Collectors.joining(" "));
-                                    documentResults.put(field, highlightedText);
-                                } else {
-                                    documentResults.put(field, sourceAsMap.get(field).toString());
-                                }
-                            }
-                        });
-
-                        sourceAsMap.forEach((key, value) -> {
-                            if (!documentResults.containsKey(key)) {
-                                documentResults.put(key, value.toString());
-                            }
-                        });
-                    }
-
-                    StringBuilder result = new StringBuilder("{");
-                    documentResults.forEach((key, value) -> result.append(String.format("\"%s\":\"%s\",", key, value)));
-                    if (!documentResults.isEmpty()) {
-                        result.deleteCharAt(result.length() - 1);
-                    }
-                    result.append("}");
-
-                    resultsForCategory.add(result.toString());
+            results.add(new SearchDocument(hit.getSourceRef(), hit.getHighlightFields(), null, documentFields(criteria, hit), spliceHighlights));
+        }
+        return results;
+    }
+
+    static SearchResult processSearchResultsByCategory(SearchCriteria criteria, boolean spliceHighlights, MultiSearchResponse.Item[] items) {
+        boolean searchAllFields = criteria.getFieldDesignation().isEmpty() || (criteria.getFieldDesignation().size() == 1 && Category.ALL.get().equals(criteria.getFieldDesignation().get(0)));
+        Map<String, List<SearchDocument>> categorizedResults = new LinkedHashMap<>();
+        Map<String, Long> facets = new LinkedHashMap<>();
+        Set<String> highlightedFields = new TreeSet<>();
+        long totalHits = 0;
+
+        for (int i = 0; i < items.length; i++) {
+            if (items[i].isFailure()) {
+                throw new CompletionException(items[i].getFailure());
+            }
+            String category = criteria.getCategories().get(i);
+            SearchHits hits = items[i].getResponse().getHits();
+
+            List<SearchDocument> resultsForCategory = new ArrayList<>(hits.getHits().length);
+            for (SearchHit hit : hits.getHits()) {
+                resultsForCategory.add(new SearchDocument(hit.getSourceRef(), hit.getHighlightFields(), searchAllFields ? null : criteria.getFieldDesignation(), documentFields(criteria, hit), spliceHighlights));
+            }
+            categorizedResults.put(category, resultsForCategory);
+            highlightedFields.addAll(highlightedFields(criteria, resultsForCategory));
+
+            long categoryHits = hits.getTotalHits().value;
+            facets.put(category, categoryHits);
+            totalHits += categoryHits;
+        }
+
+        return SearchResult.builder()
+                .totalHits(totalHits)
+                .totalHitsRelation("eq")
+                .categories(categorizedResults)
+                .facets(facets)
+                .highlightedFields(new ArrayList<>(highlightedFields))
+                .build();
+    }
+
+    /**
+     * Fields that came back with at least one highlighted fragment in any of the documents, sorted. Excluded
+     * fields are left out: a wildcard highlight still covers them, but the response does not.
+     */
+    static List<String> highlightedFields(SearchCriteria criteria, List<SearchDocument> documents) {
+        List<String> excludes = criteria.getExcludes();
+        Set<String> fields = new TreeSet<>();
+        for (SearchDocument document : documents) {
+            for (String field : document.getHighlightFields().keySet()) {
+                if (document.getHighlight(field) != null && (GenericValidator.isNullOrEmpty(excludes) || !Regex.simpleMatch(excludes, field))) {
+                    fields.add(field);
                 }
             }
         }
+        return new ArrayList<>(fields);
+    }
+
+    /**
+     * The requested doc value fields of a hit; the other entries of its fields map are metadata.
+     */
+    private static Map<String, DocumentField> documentFields(SearchCriteria criteria, SearchHit hit) {
+        if (GenericValidator.isNullOrEmpty(criteria.getDocValueFields()) || hit.getFields().isEmpty()) return Collections.emptyMap();
+
+        Map<String, DocumentField> documentFields = new LinkedHashMap<>();
+        for (DocumentField documentField : hit.getFields().values()) {
+            if (Regex.simpleMatch(criteria.getDocValueFields(), documentField.getName())) {
+                documentFields.put(documentField.getName(), documentField);
+            }
+        }
+        return documentFields;
+    }
+
+    private void buildSource(SearchCriteria criteria, KeywordQuery keywordQuery, HighlightBuilder highlightBuilder, boolean continuation,
+                             SearchSourceBuilder sourceBuilder, SearchTrace trace) {
+        sourceBuilder.query(queryTemplateCache.query(keywordQuery, criteria.getFieldDesignation()));
+        project(criteria, sourceBuilder);
+        setTrackTotalHits(criteria.getTrackTotalHits(), continuation, sourceBuilder);
+        trace.lap(Stage.QUERY_BUILD);
+        setDateRange(criteria.getPeriod(), sourceBuilder);
+        trace.lap(Stage.DATE_RANGE);
+        sort(criteria.getSortOption(), sourceBuilder);
+        trace.lap(Stage.SORT);
+        sourceBuilder.highlighter(highlightBuilder);
+        trace.lap(Stage.HIGHLIGHT);
+        trace.query(sourceBuilder);
     }
 
     private void setPage(Integer maxDocument, Integer nowPage, SearchSourceBuilder sourceBuilder) {
@@ -190,7 +535,7 @@ public class SearchService {
         sourceBuilder.size(maxDocument);
     }
 
-    private void sort(String sortOption, SearchSourceBuilder sourceBuilder, SearchRequest searchRequest) {
+    private void sort(String sortOption, SearchSourceBuilder sourceBuilder) {
         if (sortOption.equals(Sort.ACCURACY.get())) {
             QueryBuilder existingQuery = sourceBuilder.query();
 
@@ -204,17 +549,118 @@ public class SearchService {
         } else if (sortOption.equals(Sort.EARLIEST.get())) {
             sourceBuilder.sort(SortBuilders.fieldSort(Sort.TARGET.get()).order(SortOrder.ASC));
         }
-        searchRequest.source(sourceBuilder);
+    }
+
+    private void setCursor(PageToken pageToken, Integer maxDocument, SearchSourceBuilder sourceBuilder, SearchRequest searchRequest) {
+        searchRequest.setCcsMinimizeRoundtrips(false);
+        sourceBuilder.pointInTimeBuilder(new PointInTimeBuilder(pageToken.getPointInTimeId()).setKeepAlive(TimeValue.parseTimeValue(cursorKeepAlive, "search.cursor.keepAlive")));
+        sourceBuilder.size(maxDocument);
+        if (pageToken.getSearchAfter() != null) {
+            sourceBuilder.searchAfter(pageToken.getSearchAfter().toArray());
+        }
+        if (sourceBuilder.sorts() == null || sourceBuilder.sorts().isEmpty()) {
+            sourceBuilder.sort(SortBuilders.scoreSort());
+        }
+        sourceBuilder.sort(SortBuilders.fieldSort(cursorTiebreaker).order(SortOrder.ASC));
+    }
+
+    private void setTrackTotalHits(String option, boolean continuation, SearchSourceBuilder sourceBuilder) {
+        TrackTotalHits trackTotalHits;
+        if (!GenericValidator.isNullOrEmpty(option)) {
+            trackTotalHits = TrackTotalHits.of(option);
+        } else {
+            trackTotalHits = continuation ? TrackTotalHits.OFF : TrackTotalHits.of(defaultTrackTotalHits);
+        }
+
+        if (trackTotalHits == TrackTotalHits.EXACT) {
+            sourceBuilder.trackTotalHits(true);
+        } else if (trackTotalHits == TrackTotalHits.CAPPED) {
+            sourceBuilder.trackTotalHitsUpTo(trackTotalHitsCap);
+        } else {
+            sourceBuilder.trackTotalHits(false);
+        }
+    }
+
+    private PageToken decodePageToken(SearchCriteria criteria, String criteriaHash) {
+        if (GenericValidator.isNullOrEmpty(criteria.getPageToken())) return null;
+
+        PageToken pageToken;
+        try {
+            pageToken = objectMapper.readValue(Base64.getUrlDecoder().decode(criteria.getPageToken()), PageToken.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("올바르지 않은 페이지 토큰입니다.");
+        }
+        if (pageToken.getPointInTimeId() == null || pageToken.getCriteriaHash() == null) {
+            throw new IllegalArgumentException("올바르지 않은 페이지 토큰입니다.");
+        }
+        if (!Objects.equals(pageToken.getCriteriaHash(), criteriaHash)) {
+            throw new IllegalArgumentException("페이지 토큰이 검색 조건과 일치하지 않습니다.");
+        }
+        return pageToken;
+    }
+
+    /**
+     * Hash of the criteria that decide which hits a cursor pages through and in what order, so a page token is only
+     * accepted for the search it was issued for.
+     */
+    private static String criteriaHash(SearchCriteria criteria, KeywordQuery keywordQuery) {
+        String canonical = String.join("\u0001",
+                String.join("\u0000", keywordQuery.getNormalizedClauses()),
+                String.join("\u0000", sorted(criteria.getFieldDesignation())),
+                String.valueOf(criteria.getPeriod()),
+                String.valueOf(criteria.getSortOption()));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String nextPageToken(PageToken pageToken, SearchResponse searchResponse, Integer maxDocument) {
+        String pointInTimeId = searchResponse.pointInTimeId() != null ? searchResponse.pointInTimeId() : pageToken.getPointInTimeId();
+        SearchHit[] hits = searchResponse.getHits().getHits();
+        if (hits.length < maxDocument) {
+            pointInTimeService.close(pointInTimeId);
+            return null;
+        }
+
+        Object[] sortValues = hits[hits.length - 1].getSortValues();
+        PageToken next = new PageToken(pointInTimeId, pageToken.getCriteriaHash(), Arrays.asList(sortValues));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(next));
+        } catch (JsonProcessingException e) {
+            throw new CompletionException(e);
+        }
     }
 
     private void setDateRange(String period, SearchSourceBuilder sourceBuilder) {
+        LocalDate[] dateRange = resolveDateRange(period);
+        if (dateRange == null) return;
+
+        RangeQueryBuilder rangeQueryBuilder = QueryShaper.relativeDateRange(Period.TARGET.get(), period);
+        if (rangeQueryBuilder == null) {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(Period.DATE_FORMAT.get());
+            rangeQueryBuilder = QueryBuilders.rangeQuery(Period.TARGET.get()).format(Period.DATE_FORMAT.get()).from(dateRange[0].format(formatter)).to(dateRange[1].format(formatter));
+        }
+
+        QueryBuilder existingQuery = sourceBuilder.query();
+
+        if (existingQuery instanceof BoolQueryBuilder) {
+            ((BoolQueryBuilder) existingQuery).filter(rangeQueryBuilder);
+        }
+    }
+
+    private LocalDate[] resolveDateRange(String period) {
+        if (GenericValidator.isNullOrEmpty(period)) return null;
+
         LocalDate startDate = null;
         LocalDate endDate = LocalDate.now();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern(Period.DATE_FORMAT.get());
 
         isValid(period);
 
-        if (Period.ALL.get().equalsIgnoreCase(period)) return;
+        if (Period.ALL.get().equalsIgnoreCase(period)) return null;
 
         if (period.contains(Period.DELIMETER.get())) {
             startDate = LocalDate.parse(period.split(Period.DELIMETER.get())[0].trim(), formatter);
@@ -228,112 +674,134 @@ public class SearchService {
         } else if (Period.YEAR.get().equalsIgnoreCase(period)) {
             startDate = endDate.minusYears(1);
         }
+        return new LocalDate[]{startDate, endDate};
+    }
 
-        RangeQueryBuilder rangeQueryBuilder = QueryBuilders.rangeQuery(Period.TARGET.get()).format(Period.DATE_FORMAT.get()).from(startDate.format(formatter)).to(endDate.format(formatter));
-
-        QueryBuilder existingQuery = sourceBuilder.query();
+    private SearchResultCache.Key cacheKey(SearchCriteria criteria, KeywordQuery keywordQuery, HighlightBuilder highlightBuilder) {
+        List<String> fields = sorted(criteria.getFieldDesignation());
 
-        if (existingQuery instanceof BoolQueryBuilder) {
-            ((BoolQueryBuilder) existingQuery).filter(rangeQueryBuilder);
+        List<String> categories = new ArrayList<>();
+        for (int i = 0; i < criteria.getCategories().size(); i++) {
+            Integer maxCount = criteria.getCategoryMaxCounts() != null && i < criteria.getCategoryMaxCounts().size() ? criteria.getCategoryMaxCounts().get(i) : null;
+            categories.add(criteria.getCategories().get(i) + ":" + maxCount);
         }
-    }
+        Collections.sort(categories);
 
-    private void checkForbiddenWord(String keyword) {
-        ForbiddenWordValidator forbiddenWordValidator = new ForbiddenWordValidator(forbiddenPath);
-        if (forbiddenWordValidator.isForbiddenWord(keyword)) {
-            throw new RuntimeException("금칙어가 포함되어 있습니다.");
-        }
-    }
+        LocalDate[] dateRange = resolveDateRange(criteria.getPeriod());
+        String resolvedRange = dateRange == null ? Period.ALL.get() : dateRange[0] + Period.DELIMETER.get() + dateRange[1];
+        boolean historical = dateRange != null && dateRange[1].isBefore(LocalDate.now());
 
-    private void setupHighlighting(SearchSourceBuilder sourceBuilder) {
-        HighlightBuilder highlightBuilder = new HighlightBuilder();
-        highlightBuilder.requireFieldMatch(false);
-        highlightBuilder.field(new HighlightBuilder.Field("*").fragmentSize(10000).numOfFragments(0));
-        highlightBuilder.preTags("<b>").postTags("</b>");
-        sourceBuilder.highlighter(highlightBuilder);
+        return new SearchResultCache.Key(keywordQuery.getNormalizedClauses(), fields, resolvedRange, historical, categories,
+                criteria.getMaxDocument(), criteria.getNowPage(), criteria.getSortOption(), criteria.getTrackTotalHits(),
+                highlightKey(highlightBuilder), sorted(criteria.getIncludes()), sorted(criteria.getExcludes()), sorted(criteria.getDocValueFields()));
     }
 
-    private void buildAdvancedSearchQuery(String keyword, SearchSourceBuilder sourceBuilder, List<String> fieldDesignation) {
-        BoolQueryBuilder boolQueryBuilder = QueryBuilders.boolQuery();
-
-        boolean searchAllFields = fieldDesignation.isEmpty() || (fieldDesignation.size() == 1 && Field.ALL.get().equals(fieldDesignation.get(0)));
-        List<String> keywords = getKeywords(keyword);
-
-        for (String word : keywords) {
+    private static List<String> sorted(List<String> values) {
+        if (values == null) return Collections.emptyList();
 
-            if (word.isEmpty()) continue;
+        List<String> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted;
+    }
 
-            if (word.startsWith(AdvancedSearch.EXCLUDE.get())) {
-                String excludeKeyword = word.substring(1);
-                if (searchAllFields) {
-                    boolQueryBuilder.mustNot(QueryBuilders.multiMatchQuery(excludeKeyword, "*")).boost(2.0f);
-                } else {
-                    for (String field : fieldDesignation) {
-                        boolQueryBuilder.mustNot(QueryBuilders.matchQuery(field, excludeKeyword)).boost(2.0f);
-                    }
-                }
-            } else if (word.startsWith(AdvancedSearch.EQUAL.get()) && word.endsWith(AdvancedSearch.EQUAL.get())) {
-                String exactMatchKeyword = word.substring(1, word.length() - 1);
-                if (searchAllFields) {
-                    boolQueryBuilder.must(QueryBuilders.multiMatchQuery(exactMatchKeyword, "*").type(MatchQuery.Type.PHRASE)).boost(2.0f);
-                } else {
-                    for (String field : fieldDesignation) {
-                        boolQueryBuilder.must(QueryBuilders.termQuery(field, exactMatchKeyword)).boost(2.0f);
-                    }
-                }
-            } else if (word.startsWith(AdvancedSearch.INCLUDE.get())) {
-                String includeKeyword = word.substring(1);
-                if (searchAllFields) {
-                    boolQueryBuilder.must(QueryBuilders.multiMatchQuery(includeKeyword, "*")).boost(2.0f);
-                } else {
-                    for (String field : fieldDesignation) {
-                        boolQueryBuilder.must(QueryBuilders.matchQuery(field, includeKeyword)).boost(2.0f);
-                    }
-                }
-            } else {
-                if (searchAllFields) {
-                    boolQueryBuilder.should(QueryBuilders.multiMatchQuery(word, "*")).boost(2.0f);
-                } else {
-                    for (String field : fieldDesignation) {
-                        boolQueryBuilder.should(QueryBuilders.matchQuery(field, word)).boost(2.0f);
-                    }
-                }
+    /**
+     * Narrows each hit to the fields the caller shows: {@code includes} and {@code excludes} filter
+     * {@code _source}, and {@code docValueFields} are read from doc values, which suits keyword and date fields
+     * that need no {@code _source} parsing.
+     */
+    private static void project(SearchCriteria criteria, SearchSourceBuilder sourceBuilder) {
+        if (!GenericValidator.isNullOrEmpty(criteria.getIncludes()) || !GenericValidator.isNullOrEmpty(criteria.getExcludes())) {
+            sourceBuilder.fetchSource(toArray(criteria.getIncludes()), toArray(criteria.getExcludes()));
+        }
+        if (!GenericValidator.isNullOrEmpty(criteria.getDocValueFields())) {
+            for (String field : criteria.getDocValueFields()) {
+                sourceBuilder.docValueField(field);
             }
         }
-        sourceBuilder.query(boolQueryBuilder);
     }
 
-    private void indexSearchTerm(ElasticConfiguration elasticConfiguration, SearchCriteria criteria) throws IOException {
-        SimpleDateFormat dateFormat = new SimpleDateFormat(TopSearched.DATE_FORMAT.get());
-        String formattedDate = dateFormat.format(new Date());
+    private static String[] toArray(List<String> values) {
+        return GenericValidator.isNullOrEmpty(values) ? null : values.toArray(new String[0]);
+    }
 
-        List<String> termsToIndex = parseAndFilterKeywords(criteria.getKeyword());
-        for (String term : termsToIndex) {
-            IndexRequest indexRequest = new IndexRequest(topSearchedIndex);
-            indexRequest.source(String.format("{\"keyword\": \"%s\", \"searchedDate\": \"%s\"}", term, dateFormat.format(new Date())), XContentType.JSON);
-            IndexResponse response = elasticConfiguration.getElasticClient().index(indexRequest, RequestOptions.DEFAULT);
-            logger.info("Search log Id: {}, keyword: {}, searchedDate: {}", response.getId(), term, formattedDate);
+    private void checkForbiddenWord(String keyword) {
+        if (forbiddenWordValidator.isForbiddenWord(keyword)) {
+            throw new RuntimeException("금칙어가 포함되어 있습니다.");
         }
     }
 
-    private List<String> parseAndFilterKeywords(String keyword) {
-        List<String> termsToIndex = new ArrayList<>();
-        List<String> keywords = getKeywords(keyword);
+    /**
+     * Highlights the designated fields, else the configured highlightable fields, else the included or all fields,
+     * with at most {@code highlightFragments} fragments of {@code highlightFragmentSize} characters each; 0 fragments
+     * highlights whole values. The unified highlighter reads offsets from the postings of fields indexed with
+     * {@code index_options: offsets} instead of re-analyzing the text. Null for {@code highlight=none} or when the
+     * projection leaves no field to highlight.
+     */
+    private HighlightBuilder highlight(SearchCriteria criteria) {
+        Highlighter highlighter = Highlighter.of(GenericValidator.isNullOrEmpty(criteria.getHighlight()) ? defaultHighlighter : criteria.getHighlight());
+        if (highlighter == Highlighter.NONE) return null;
+
+        int fragmentCount = criteria.getHighlightFragments() != null ? criteria.getHighlightFragments() : defaultFragmentCount;
+        if (fragmentCount < 0 || fragmentCount > maxFragmentCount) {
+            throw new IllegalArgumentException("하이라이트 조각 수는 0 이상 " + maxFragmentCount + " 이하로 입력하세요.");
+        }
+        int fragmentSize = criteria.getHighlightFragmentSize() != null ? criteria.getHighlightFragmentSize() : defaultFragmentSize;
+        if (fragmentSize < 1 || fragmentSize > maxFragmentSize) {
+            throw new IllegalArgumentException("하이라이트 조각 길이는 1 이상 " + maxFragmentSize + " 이하로 입력하세요.");
+        }
 
-        for (String word : keywords) {
-            if (word.startsWith(AdvancedSearch.EXCLUDE.get()) || word.isEmpty()) {
-                continue;
+        Set<String> fields = new TreeSet<>();
+        boolean searchAllFields = criteria.getFieldDesignation().isEmpty() || (criteria.getFieldDesignation().size() == 1 && Field.ALL.get().equals(criteria.getFieldDesignation().get(0)));
+        if (!searchAllFields) {
+            fields.addAll(criteria.getFieldDesignation());
+        } else {
+            for (String field : highlightFields.split(",")) {
+                if (!field.isBlank()) fields.add(field.trim());
             }
+        }
+        // Only fields the projection keeps are worth highlighting.
+        List<String> includes = criteria.getIncludes();
+        if (GenericValidator.isNullOrEmpty(includes)) {
+            if (fields.isEmpty()) fields.add("*");
+        } else if (fields.isEmpty()) {
+            fields.addAll(includes);
+        } else {
+            fields.removeIf(field -> !Regex.simpleMatch(includes, field));
+        }
+        if (!GenericValidator.isNullOrEmpty(criteria.getExcludes())) {
+            fields.removeIf(field -> !"*".equals(field) && Regex.simpleMatch(criteria.getExcludes(), field));
+        }
+        if (fields.isEmpty()) return null;
+
+        HighlightBuilder highlightBuilder = new HighlightBuilder()
+                .highlighterType(highlighter.get())
+                .numOfFragments(fragmentCount)
+                .fragmentSize(fragmentSize)
+                .requireFieldMatch(false)
+                .preTags("<b>").postTags("</b>");
+        for (String field : fields) {
+            highlightBuilder.field(field);
+        }
+        return highlightBuilder;
+    }
 
-            if (word.startsWith(AdvancedSearch.INCLUDE.get()) && !word.substring(1).isEmpty()) {
-                termsToIndex.add(word.substring(1).trim());
-            } else if (word.startsWith(AdvancedSearch.EQUAL.get()) && word.endsWith(AdvancedSearch.EQUAL.get()) && !word.substring(1, word.length() - 1).isEmpty()) {
-                termsToIndex.add(word.substring(1, word.length() - 1).trim());
-            } else if (!word.equals("+") && !word.equals("\"\"") && !word.isEmpty()) {
-                termsToIndex.add(word.trim());
-            }
+    /**
+     * Whole-value highlights (0 fragments) replace the source values; bounded fragments go next to the source.
+     */
+    private static boolean spliceHighlights(HighlightBuilder highlightBuilder) {
+        return highlightBuilder != null && highlightBuilder.numOfFragments() == 0;
+    }
+
+    private static String highlightKey(HighlightBuilder highlightBuilder) {
+        if (highlightBuilder == null) return Highlighter.NONE.get();
+
+        StringBuilder key = new StringBuilder(highlightBuilder.highlighterType())
+                .append(':').append(highlightBuilder.numOfFragments())
+                .append(':').append(highlightBuilder.fragmentSize());
+        for (HighlightBuilder.Field field : highlightBuilder.fields()) {
+            key.append(':').append(field.name());
         }
-        return termsToIndex;
+        return key.toString();
     }
 
     private void isValid(String period) {
@@ -372,38 +840,4 @@ public class SearchService {
 
         return period.trim().equals(TopSearched.ALL.get());
     }
-
-    private static List<String> getKeywords(String keyword) {
-        List<String> keywords = new ArrayList<>();
-        StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < keyword.length(); i++) {
-
-            if (i >= keyword.length() - 1) {
-                builder.append(keyword.charAt(i));
-                keywords.add(builder.toString().trim());
-            }
-
-            if (keyword.charAt(i) == '+' || keyword.charAt(i) == '-') {
-                keywords.add(builder.toString().trim());
-                builder.setLength(0);
-                builder.append(keyword.charAt(i));
-            } else if (keyword.charAt(i) == '\"') {
-                keywords.add(builder.toString().trim());
-                builder.setLength(0);
-                builder.append(keyword.charAt(i++));
-                while (keyword.charAt(i) != '\"') {
-                    builder.append(keyword.charAt(i++));
-                }
-                builder.append(keyword.charAt(i));
-                while (keyword.charAt(i) == ' ') {
-                    i++;
-                }
-                keywords.add(builder.toString().trim());
-                builder.setLength(0);
-            } else {
-                builder.append(keyword.charAt(i));
-            }
-        }
-        return keywords;
-    }
-}
\ No newline at end of file
+}
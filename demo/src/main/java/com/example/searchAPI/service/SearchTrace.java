@@ -0,0 +1,60 @@
+package com.example.searchAPI.service;
+
+import com.example.searchAPI.constant.search.Stage;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Stage timings of one search request. Stages run one after another, so each {@link #lap(Stage)} charges the
+ * time since the previous lap to the given stage; a lap may happen on the thread that completes the
+ * Elasticsearch call.
+ */
+class SearchTrace {
+
+    private final long startNanos = System.nanoTime();
+    private final Map<Stage, Long> stageNanos = new EnumMap<>(Stage.class);
+    private long lastLapNanos = startNanos;
+    private long tookMillis = -1;
+    private boolean cacheHit;
+    private SearchSourceBuilder query;
+
+    void lap(Stage stage) {
+        long now = System.nanoTime();
+        stageNanos.merge(stage, now - lastLapNanos, Long::sum);
+        lastLapNanos = now;
+    }
+
+    void took(long millis) {
+        tookMillis = millis;
+    }
+
+    void cacheHit() {
+        cacheHit = true;
+    }
+
+    void query(SearchSourceBuilder sourceBuilder) {
+        query = sourceBuilder;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    Map<Stage, Long> getStageNanos() {
+        return stageNanos;
+    }
+
+    long getTookMillis() {
+        return tookMillis;
+    }
+
+    boolean isCacheHit() {
+        return cacheHit;
+    }
+
+    SearchSourceBuilder getQuery() {
+        return query;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.searchAPI.service;
+
+import com.example.searchAPI.config.ElasticConfiguration;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shard request cache and query cache counters of the indices this service searches, read from {@code _stats},
+ * to check that {@link QueryShaper} makes repeats hit. The counters are cumulative on the cluster, so the
+ * periodic report also gives the hit ratio since the previous read.
+ */
+@Component
+public class ShardCacheStats {
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Counters {
+        static final Counters EMPTY = new Counters(0, 0, 0, 0);
+
+        private final long hitCount;
+        private final long missCount;
+        private final long evictions;
+        private final long memoryBytes;
+
+        public double getHitRatio() {
+            long lookups = hitCount + missCount;
+            return lookups == 0 ? 0 : (double) hitCount / lookups;
+        }
+
+        Counters since(Counters earlier) {
+            return new Counters(hitCount - earlier.hitCount, missCount - earlier.missCount, evictions - earlier.evictions, memoryBytes);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hit ratio %.3f (%d hits, %d misses, %d evictions, %d bytes)", getHitRatio(), hitCount, missCount, evictions, memoryBytes);
+        }
+    }
+
+    @Autowired
+    private ElasticConfiguration elasticConfiguration;
+
+    @Autowired
+    private SearchLogRollupService searchLogRollupService;
+
+    @Value("${search.index}")
+    private String index;
+
+    @Value("${autocomplete.index:ngrams_index}")
+    private String autocompleteIndex;
+
+    @Value("${search.shardCache.stats.enabled:true}")
+    private boolean enabled;
+
+    private final Logger logger = LoggerFactory.getLogger(ShardCacheStats.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Getter
+    private volatile Counters requestCache = Counters.EMPTY;
+
+    @Getter
+    private volatile Counters queryCache = Counters.EMPTY;
+
+    @Scheduled(fixedDelayString = "${search.shardCache.stats.intervalMs:60000}", initialDelayString = "${search.shardCache.stats.intervalMs:60000}")
+    public void report() {
+        if (!enabled) return;
+
+        Counters previousRequestCache = requestCache;
+        Counters previousQueryCache = queryCache;
+        try {
+            refresh();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to read shard cache stats: {}", e.getMessage());
+            return;
+        }
+        logger.info("Shard caches since last report: request cache {}, query cache {}",
+                requestCache.since(previousRequestCache), queryCache.since(previousQueryCache));
+    }
+
+    /**
+     * Reads the current totals over all shard copies of the searched indices.
+     */
+    public void refresh() throws IOException {
+        Request request = new Request("GET", "/" + String.join(",", indices()) + "/_stats/request_cache,query_cache");
+        request.addParameter("ignore_unavailable", "true");
+        Response response = elasticConfiguration.getElasticClient().getLowLevelClient().performRequest(request);
+
+        JsonNode total;
+        try (InputStream content = response.getEntity().getContent()) {
+            total = objectMapper.readTree(content).path("_all").path("total");
+        }
+        requestCache = counters(total.path("request_cache"));
+        queryCache = counters(total.path("query_cache"));
+    }
+
+    private List<String> indices() {
+        List<String> indices = new ArrayList<>(List.of(index, autocompleteIndex));
+        indices.addAll(Arrays.asList(searchLogRollupService.getIndices()));
+        return indices;
+    }
+
+    private static Counters counters(JsonNode cache) {
+        return new Counters(cache.path("hit_count").asLong(), cache.path("miss_count").asLong(),
+                cache.path("evictions").asLong(), cache.path("memory_size_in_bytes").asLong());
+    }
+}
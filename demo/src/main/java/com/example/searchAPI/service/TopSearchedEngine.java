@@ -0,0 +1,465 @@
+package com.example.searchAPI.service;
+
+import com.example.searchAPI.config.ElasticConfiguration;
+import com.example.searchAPI.constant.topsearched.TopSearched;
+import com.example.searchAPI.sketch.CountMinSketch;
+import com.example.searchAPI.sketch.SpaceSaving;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeValuesSourceBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
+import org.elasticsearch.search.aggregations.metrics.Sum;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process top-K engine over the search-term stream.
+ * Each day keeps a Space-Saving summary plus a Count-Min sketch, so any day range is answered by merging buckets
+ * in memory. Buckets are checkpointed to disk and the days after the last checkpoint are rebuilt from the
+ * search-log and rollup indices on startup. Terms recorded while the rebuild runs are kept aside and left out of
+ * the rebuild query, so each search is counted exactly once however long the rebuild takes or retries.
+ * Only today's bucket changes between calls, so the estimates over the closed days of a range are kept per range
+ * and reused until a past day is recorded into, rebuilt or expired.
+ */
+@Component
+public class TopSearchedEngine {
+
+    private static final int CHECKPOINT_MAGIC = 0x54534b45;
+    private static final int CHECKPOINT_VERSION = 1;
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final Comparator<Map.Entry<String, Long>> RANKING =
+            Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private class DayBucket {
+        private SpaceSaving summary = new SpaceSaving(capacity);
+        private CountMinSketch sketch = new CountMinSketch(sketchDepth, sketchWidth);
+
+        synchronized void add(String term, long count) {
+            sketch.add(term, count);
+            summary.offer(term, count);
+        }
+
+        synchronized long estimate(String term) {
+            if (summary.contains(term)) return summary.count(term);
+            if (!summary.isFull()) return 0;
+            return Math.min(sketch.estimate(term), summary.minCount());
+        }
+
+        synchronized Set<String> candidates() {
+            return new HashSet<>(summary.items());
+        }
+
+        /**
+         * The most {@link #estimate} can return for a term outside {@link #candidates}.
+         */
+        synchronized long bound() {
+            return summary.isFull() ? summary.minCount() : 0;
+        }
+
+        synchronized void mergeFrom(DayBucket other) {
+            synchronized (other) {
+                sketch.merge(other.sketch);
+                for (String term : other.summary.items()) {
+                    summary.offer(term, other.summary.count(term));
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimates over the closed days of a range, with the candidate terms ranked by them. Terms that are not
+     * candidates of any closed day are estimated on first use.
+     */
+    private static class ClosedRange {
+        private final long version;
+        private final LocalDate today;
+        private final List<DayBucket> days;
+        private final Map<String, Long> estimates = new ConcurrentHashMap<>();
+        private final List<Map.Entry<String, Long>> ranked;
+
+        ClosedRange(long version, LocalDate today, List<DayBucket> days) {
+            this.version = version;
+            this.today = today;
+            this.days = days;
+            Set<String> candidates = new HashSet<>();
+            for (DayBucket day : days) {
+                candidates.addAll(day.candidates());
+            }
+            ranked = new ArrayList<>(candidates.size());
+            for (String term : candidates) {
+                ranked.add(Map.entry(term, estimate(term)));
+            }
+            ranked.sort(RANKING);
+        }
+
+        long estimate(String term) {
+            return estimates.computeIfAbsent(term, t -> sum(days, t));
+        }
+    }
+
+    @Autowired
+    private ElasticConfiguration elasticConfiguration;
+
+    @Autowired
+    private SearchLogRollupService searchLogRollupService;
+
+    @Value("${topsearched.engine.enabled:true}")
+    private boolean enabled;
+
+    @Value("${topsearched.engine.capacity:1000}")
+    private int capacity;
+
+    @Value("${topsearched.engine.sketchDepth:4}")
+    private int sketchDepth;
+
+    @Value("${topsearched.engine.sketchWidth:2048}")
+    private int sketchWidth;
+
+    @Value("${topsearched.engine.retentionDays:400}")
+    private int retentionDays;
+
+    @Value("${topsearched.engine.checkpointPath:checkpoint/topsearched.bin}")
+    private String checkpointPath;
+
+    @Value("${topsearched.engine.rebuildOnStartup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${topsearched.engine.retryBackoffMs:1000}")
+    private long retryBackoffMs;
+
+    @Value("${topsearched.engine.maxRetryBackoffMs:60000}")
+    private long maxRetryBackoffMs;
+
+    @Value("${topsearched.engine.rangeCacheSize:64}")
+    private long rangeCacheSize;
+
+    @Value("${topsearched.index}")
+    private String topSearchedIndex;
+
+    @Value("${topsearched.field.date}")
+    private String dateField;
+
+    @Value("${topsearched.field.keyword}")
+    private String keywordField;
+
+    private final Logger logger = LoggerFactory.getLogger(TopSearchedEngine.class);
+    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(TopSearched.DATE_FORMAT.get());
+
+    private final ConcurrentSkipListMap<LocalDate, DayBucket> buckets = new ConcurrentSkipListMap<>();
+    private final Object rebuildLock = new Object();
+    private Map<LocalDate, DayBucket> recordedDuringRebuild = new HashMap<>();
+    private volatile boolean ready;
+    private Thread rebuilder;
+    // Bumped after any change to a day before today, which invalidates the closed ranges computed before it.
+    private final AtomicLong closedVersion = new AtomicLong();
+    private Cache<List<LocalDate>, ClosedRange> closedRanges;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) return;
+
+        closedRanges = Caffeine.newBuilder()
+                .maximumSize(rangeCacheSize)
+                .build();
+
+        LocalDate rebuildFrom = loadCheckpoint();
+        if (!rebuildOnStartup) {
+            ready = true;
+            return;
+        }
+
+        // Searches logged from here on are recorded aside, so the rebuild leaves them out.
+        long recordingSince = System.currentTimeMillis();
+        rebuilder = new Thread(() -> rebuildUntilReady(rebuildFrom, recordingSince), "topsearched-rebuild");
+        rebuilder.setDaemon(true);
+        rebuilder.start();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (rebuilder != null) {
+            rebuilder.interrupt();
+        }
+        if (enabled && ready) {
+            checkpoint();
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public void record(List<String> terms, LocalDate date) {
+        if (!enabled) return;
+
+        if (!ready) {
+            synchronized (rebuildLock) {
+                if (!ready) {
+                    add(recordedDuringRebuild, terms, date);
+                    return;
+                }
+            }
+        }
+        add(buckets, terms, date);
+        if (date.isBefore(LocalDate.now())) {
+            closedVersion.incrementAndGet();
+        }
+    }
+
+    private void add(Map<LocalDate, DayBucket> target, List<String> terms, LocalDate date) {
+        DayBucket bucket = target.computeIfAbsent(date, day -> new DayBucket());
+        for (String term : terms) {
+            bucket.add(term, 1);
+        }
+    }
+
+    /**
+     * Ranks the terms of today's buckets and, best first, those of the closed days until no remaining closed
+     * term can reach the top {@code size} even with the most today's buckets could add to it.
+     */
+    public List<TopSearchedService.TopSearchedData> top(LocalDate from, LocalDate to, int size) {
+        LocalDate today = LocalDate.now();
+        ClosedRange closed = closedRange(from, to, today);
+        List<DayBucket> open = days(from == null || from.isBefore(today) ? today : from, to);
+
+        Set<String> openCandidates = new HashSet<>();
+        long openBound = 0;
+        for (DayBucket bucket : open) {
+            openCandidates.addAll(bucket.candidates());
+            openBound += bucket.bound();
+        }
+
+        PriorityQueue<Map.Entry<String, Long>> best = new PriorityQueue<>(RANKING.reversed());
+        for (String term : openCandidates) {
+            offer(best, Map.entry(term, closed.estimate(term) + sum(open, term)), size);
+        }
+        for (Map.Entry<String, Long> entry : closed.ranked) {
+            if (best.size() >= size && entry.getValue() + openBound < best.peek().getValue()) break;
+            if (openCandidates.contains(entry.getKey())) continue;
+            offer(best, Map.entry(entry.getKey(), entry.getValue() + sum(open, entry.getKey())), size);
+        }
+
+        List<Map.Entry<String, Long>> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        List<TopSearchedService.TopSearchedData> topSearchedData = new ArrayList<>(ranked.size());
+        for (Map.Entry<String, Long> entry : ranked) {
+            topSearchedData.add(new TopSearchedService.TopSearchedData(entry.getKey(), entry.getValue()));
+        }
+        return topSearchedData;
+    }
+
+    private ClosedRange closedRange(LocalDate from, LocalDate to, LocalDate today) {
+        LocalDate closedTo = to == null || !to.isBefore(today) ? today.minusDays(1) : to;
+        long version = closedVersion.get();
+        return closedRanges.asMap().compute(Arrays.asList(from, closedTo), (key, existing) -> {
+            if (existing != null && existing.version == version && existing.today.equals(today)) return existing;
+            return new ClosedRange(version, today, days(from, closedTo));
+        });
+    }
+
+    private List<DayBucket> days(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) return List.of();
+
+        NavigableMap<LocalDate, DayBucket> days = buckets;
+        if (from != null) days = days.tailMap(from, true);
+        if (to != null) days = days.headMap(to, true);
+        return new ArrayList<>(days.values());
+    }
+
+    private static void offer(PriorityQueue<Map.Entry<String, Long>> best, Map.Entry<String, Long> entry, int size) {
+        best.add(entry);
+        if (best.size() > size) {
+            best.poll();
+        }
+    }
+
+    private static long sum(List<DayBucket> days, String term) {
+        long estimate = 0;
+        for (DayBucket day : days) {
+            estimate += day.estimate(term);
+        }
+        return estimate;
+    }
+
+    @Scheduled(fixedDelayString = "${topsearched.engine.checkpointIntervalMs:60000}", initialDelayString = "${topsearched.engine.checkpointIntervalMs:60000}")
+    public void checkpoint() {
+        if (!isReady()) return;
+
+        NavigableMap<LocalDate, DayBucket> expired = buckets.headMap(LocalDate.now().minusDays(retentionDays));
+        if (!expired.isEmpty()) {
+            expired.clear();
+            closedVersion.incrementAndGet();
+        }
+
+        Path path = Paths.get(checkpointPath);
+        Path temp = Paths.get(checkpointPath + ".tmp");
+        long start = System.nanoTime();
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(CHECKPOINT_MAGIC);
+                out.writeInt(CHECKPOINT_VERSION);
+                out.writeLong(LocalDate.now().toEpochDay());
+                out.writeInt(buckets.size());
+                for (Map.Entry<LocalDate, DayBucket> entry : buckets.entrySet()) {
+                    DayBucket bucket = entry.getValue();
+                    synchronized (bucket) {
+                        out.writeLong(entry.getKey().toEpochDay());
+                        bucket.summary.writeTo(out);
+                        bucket.sketch.writeTo(out);
+                    }
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            logger.debug("Checkpointed {} top searched buckets in {} ms", buckets.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            logger.error("Failed to checkpoint top searched engine: {}", e.getMessage());
+        }
+    }
+
+    private LocalDate loadCheckpoint() {
+        LocalDate earliest = LocalDate.now().minusDays(retentionDays);
+        Path path = Paths.get(checkpointPath);
+        if (!Files.exists(path)) return earliest;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+                logger.warn("Ignoring incompatible top searched checkpoint {}", path);
+                return earliest;
+            }
+            LocalDate savedAt = LocalDate.ofEpochDay(in.readLong());
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                LocalDate day = LocalDate.ofEpochDay(in.readLong());
+                DayBucket bucket = new DayBucket();
+                bucket.summary = SpaceSaving.readFrom(in);
+                bucket.sketch = CountMinSketch.readFrom(in);
+                if (day.isBefore(savedAt) && !day.isBefore(earliest)) {
+                    buckets.put(day, bucket);
+                }
+            }
+            logger.info("Loaded {} top searched buckets from checkpoint saved {}", buckets.size(), savedAt);
+            return savedAt;
+        } catch (IOException e) {
+            logger.error("Failed to load top searched checkpoint: {}", e.getMessage());
+            buckets.clear();
+            return earliest;
+        }
+    }
+
+    /**
+     * Retries the rebuild with backoff until it succeeds; until then the engine stays not ready and its buckets
+     * untouched, so top searched keeps being served from Elasticsearch.
+     */
+    private void rebuildUntilReady(LocalDate from, long recordingSince) {
+        long backoff = retryBackoffMs;
+        while (true) {
+            try {
+                Map<LocalDate, DayBucket> rebuilt = rebuild(from, recordingSince);
+                synchronized (rebuildLock) {
+                    buckets.tailMap(from, true).clear();
+                    buckets.putAll(rebuilt);
+                    Map<LocalDate, DayBucket> recorded = recordedDuringRebuild;
+                    recordedDuringRebuild = new HashMap<>();
+                    for (Map.Entry<LocalDate, DayBucket> entry : recorded.entrySet()) {
+                        buckets.computeIfAbsent(entry.getKey(), day -> new DayBucket()).mergeFrom(entry.getValue());
+                    }
+                    ready = true;
+                }
+                closedVersion.incrementAndGet();
+                return;
+            } catch (Exception e) {
+                logger.warn("Failed to rebuild top searched engine from {}, retrying in {} ms: {}", topSearchedIndex, backoff, e.getMessage());
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoff = Math.min(backoff * 2, maxRetryBackoffMs);
+        }
+    }
+
+    private Map<LocalDate, DayBucket> rebuild(LocalDate from, long recordingSince) throws IOException {
+        long start = System.nanoTime();
+        Map<LocalDate, DayBucket> rebuilt = new HashMap<>();
+        List<CompositeValuesSourceBuilder<?>> sources = List.of(
+                new TermsValuesSourceBuilder("date").field(dateField),
+                new TermsValuesSourceBuilder("keyword").field(keywordField));
+        CompositeAggregationBuilder composite = AggregationBuilders.composite("rebuild", sources)
+                .size(REBUILD_PAGE_SIZE)
+                .subAggregation(searchLogRollupService.countAggregation("count"));
+        SearchSourceBuilder sourceBuilder = new SearchSourceBuilder()
+                .query(QueryBuilders.boolQuery()
+                        .filter(searchLogRollupService.buildRangeQuery(from, null))
+                        .mustNot(QueryBuilders.rangeQuery(TopSearched.SEARCHED_AT.get()).gte(recordingSince)))
+                .aggregation(composite)
+                .size(0);
+
+        while (true) {
+            SearchResponse response = elasticConfiguration.getElasticClient().search(new SearchRequest(searchLogRollupService.getIndices())
+                    .indicesOptions(searchLogRollupService.getIndicesOptions())
+                    .source(sourceBuilder), RequestOptions.DEFAULT);
+            CompositeAggregation aggregation = response.getAggregations().get("rebuild");
+            for (CompositeAggregation.Bucket bucket : aggregation.getBuckets()) {
+                LocalDate day = toDate(bucket.getKey().get("date"), formatter);
+                Sum count = bucket.getAggregations().get("count");
+                rebuilt.computeIfAbsent(day, d -> new DayBucket()).add(String.valueOf(bucket.getKey().get("keyword")), (long) count.getValue());
+            }
+            if (aggregation.afterKey() == null || aggregation.getBuckets().isEmpty()) break;
+            composite.aggregateAfter(aggregation.afterKey());
+        }
+        logger.info("Rebuilt {} top searched buckets from {} in {} ms", rebuilt.size(), topSearchedIndex, (System.nanoTime() - start) / 1_000_000);
+        return rebuilt;
+    }
+
+    static LocalDate toDate(Object key, DateTimeFormatter formatter) {
+        if (key instanceof Number) {
+            return Instant.ofEpochMilli(((Number) key).longValue()).atZone(ZoneOffset.UTC).toLocalDate();
+        }
+        return LocalDate.parse(String.valueOf(key), formatter);
+    }
+}
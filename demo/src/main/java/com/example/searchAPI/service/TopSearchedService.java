@@ -1,28 +1,32 @@
 package com.example.searchAPI.service;
 
-import com.example.searchAPI.config.ElasticConfiguration;
+import com.example.searchAPI.constant.execution.Endpoint;
+import com.example.searchAPI.constant.topsearched.Source;
 import com.example.searchAPI.constant.topsearched.TopSearched;
 import com.example.searchAPI.validator.GenericValidator;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
-import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.index.query.QueryBuilder;
-import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.BucketOrder;
 import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
+import org.elasticsearch.search.aggregations.metrics.Sum;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class TopSearchedService {
@@ -40,62 +44,98 @@ public class TopSearchedService {
     }
 
     @Autowired
-    private ElasticConfiguration elasticConfiguration;
+    private ElasticsearchExecutor elasticsearchExecutor;
 
-    @Value("${topsearched.index}")
-    private String topSearchedIndex;
+    @Autowired
+    private TopSearchedEngine topSearchedEngine;
+
+    @Autowired
+    private SearchLogRollupService searchLogRollupService;
+
+    @Autowired
+    private QueryShaper queryShaper;
 
-    @Value("${topsearched.field.date}")
-    private String date;
+    @Autowired
+    private RequestCoalescer requestCoalescer;
 
     @Value("${topsearched.field.keyword}")
     private String keyword;
 
+    @Value("${search.execution.timeoutMs.topsearched:5000}")
+    private long timeoutMs;
+
     private static final String topSearchedBucketName = "top_search_terms";
+    private static final String topSearchedCountName = "search_count";
+    private static final int defaultTopSearchedSize = 10;
 
-    public List<TopSearchedData> topSearched(String period, Integer N) {
+    public CompletableFuture<List<TopSearchedData>> topSearched(String period, Integer N, String source) {
         try {
-            SearchRequest searchRequest = new SearchRequest(topSearchedIndex);
-            SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
             isValidParameter(period);
+            if (Source.of(source) == Source.MEMORY && topSearchedEngine.isReady()) {
+                return CompletableFuture.completedFuture(topSearchedFromMemory(period, N));
+            }
+
+            SearchRequest searchRequest = new SearchRequest(searchLogRollupService.getIndices())
+                    .indicesOptions(searchLogRollupService.getIndicesOptions());
+            SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
             QueryBuilder queryBuilder = buildDateRangeQuery(period);
             searchSourceBuilder.query(queryBuilder);
-            setTopSearchedSize(N, searchSourceBuilder, keyword);
+            setTopSearchedSize(N, searchSourceBuilder);
             searchRequest.source(searchSourceBuilder);
-            SearchResponse response = elasticConfiguration.getElasticClient().search(searchRequest, RequestOptions.DEFAULT);
-            Terms terms = response.getAggregations().get(topSearchedBucketName);
-            List<TopSearchedData> topSearchedData = new ArrayList<>();
+            String normalizedPeriod = GenericValidator.isNullOrEmpty(period) ? TopSearched.ALL.get() : period.replace(" ", "");
+            List<Object> requestKey = Arrays.asList(normalizedPeriod, N);
+            queryShaper.aggregationOnly(searchRequest, requestKey);
+            return requestCoalescer.execute(Endpoint.TOPSEARCHED, requestKey,
+                            () -> elasticsearchExecutor.search(Endpoint.TOPSEARCHED, searchRequest, timeoutMs)
+                                    .thenApply(TopSearchedService::toTopSearchedData))
+                    .exceptionally(e -> topSearchedEngine.isReady() ? topSearchedFromMemory(period, N) : null);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(null);
+        } catch (UncheckedIOException e) {
+            return CompletableFuture.completedFuture(topSearchedEngine.isReady() ? topSearchedFromMemory(period, N) : null);
+        }
+    }
 
-            for (Terms.Bucket bucket : terms.getBuckets()) {
-                topSearchedData.add(new TopSearchedData(bucket.getKeyAsString(), bucket.getDocCount()));
-            }
+    private List<TopSearchedData> topSearchedFromMemory(String period, Integer N) {
+        int size = N != null ? N : defaultTopSearchedSize;
+        if (GenericValidator.isNullOrEmpty(period) || period.trim().equalsIgnoreCase(TopSearched.ALL.get())) {
+            return topSearchedEngine.top(null, null, size);
+        }
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(TopSearched.DATE_FORMAT.get());
+        String[] dates = period.split(TopSearched.DELIMETER.get());
+        return topSearchedEngine.top(LocalDate.parse(dates[0].trim(), formatter), LocalDate.parse(dates[1].trim(), formatter), size);
+    }
+
+    private static List<TopSearchedData> toTopSearchedData(SearchResponse response) {
+        Terms terms = response.getAggregations().get(topSearchedBucketName);
+        List<TopSearchedData> topSearchedData = new ArrayList<>();
 
-            return topSearchedData;
-        } catch (IOException | IllegalArgumentException e) {
-            return null;
+        for (Terms.Bucket bucket : terms.getBuckets()) {
+            Sum count = bucket.getAggregations().get(topSearchedCountName);
+            topSearchedData.add(new TopSearchedData(bucket.getKeyAsString(), (long) count.getValue()));
         }
+
+        return topSearchedData;
     }
 
-    private static void setTopSearchedSize(Integer N, SearchSourceBuilder searchSourceBuilder, String keyword) {
+    private void setTopSearchedSize(Integer N, SearchSourceBuilder searchSourceBuilder) {
+        TermsAggregationBuilder terms = AggregationBuilders.terms(topSearchedBucketName)
+                .field(keyword)
+                .subAggregation(searchLogRollupService.countAggregation(topSearchedCountName))
+                .order(BucketOrder.aggregation(topSearchedCountName, false));
         if (N != null) {
-            searchSourceBuilder.aggregation(
-                    AggregationBuilders.terms(topSearchedBucketName).field(keyword).size(N)
-            );
-        } else {
-            searchSourceBuilder.aggregation(
-                    AggregationBuilders.terms(topSearchedBucketName).field(keyword)
-            );
+            terms.size(N);
         }
+        searchSourceBuilder.aggregation(terms);
     }
 
     private QueryBuilder buildDateRangeQuery(String period) {
-        if (period.trim().equalsIgnoreCase(TopSearched.ALL.get()) || period.isEmpty()) {
-            return QueryBuilders.matchAllQuery();
+        if (GenericValidator.isNullOrEmpty(period) || period.trim().equalsIgnoreCase(TopSearched.ALL.get())) {
+            return searchLogRollupService.buildRangeQuery(null, null);
         } else {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(TopSearched.DATE_FORMAT.get());
             String[] dates = period.split(TopSearched.DELIMETER.get());
-            return QueryBuilders.rangeQuery(date)
-                    .gte(dates[0].trim())
-                    .lte(dates[1].trim());
+            return searchLogRollupService.buildRangeQuery(LocalDate.parse(dates[0].trim(), formatter), LocalDate.parse(dates[1].trim(), formatter));
         }
     }
 
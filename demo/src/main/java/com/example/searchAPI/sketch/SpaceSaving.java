@@ -0,0 +1,106 @@
+package com.example.searchAPI.sketch;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Space-Saving heavy-hitters summary: tracks at most {@code capacity} items and,
+ * when full, replaces the item with the smallest count, inheriting that count as its error bound.
+ */
+public class SpaceSaving {
+
+    private final int capacity;
+    private final Map<String, long[]> counters = new HashMap<>();
+    private final TreeMap<Long, Set<String>> itemsByCount = new TreeMap<>();
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void offer(String item, long count) {
+        long[] counter = counters.get(item);
+        if (counter != null) {
+            move(item, counter[0], counter[0] + count);
+            counter[0] += count;
+            return;
+        }
+
+        if (counters.size() < capacity) {
+            counters.put(item, new long[]{count, 0});
+            itemsByCount.computeIfAbsent(count, k -> new LinkedHashSet<>()).add(item);
+            return;
+        }
+
+        Map.Entry<Long, Set<String>> min = itemsByCount.firstEntry();
+        String evicted = min.getValue().iterator().next();
+        long minCount = min.getKey();
+        remove(evicted, minCount);
+        counters.remove(evicted);
+
+        counters.put(item, new long[]{minCount + count, minCount});
+        itemsByCount.computeIfAbsent(minCount + count, k -> new LinkedHashSet<>()).add(item);
+    }
+
+    public long count(String item) {
+        long[] counter = counters.get(item);
+        return counter == null ? 0 : counter[0];
+    }
+
+    public boolean contains(String item) {
+        return counters.containsKey(item);
+    }
+
+    public boolean isFull() {
+        return counters.size() >= capacity;
+    }
+
+    public long minCount() {
+        return itemsByCount.isEmpty() ? 0 : itemsByCount.firstKey();
+    }
+
+    public Set<String> items() {
+        return counters.keySet();
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(capacity);
+        out.writeInt(counters.size());
+        for (Map.Entry<String, long[]> entry : counters.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue()[0]);
+            out.writeLong(entry.getValue()[1]);
+        }
+    }
+
+    public static SpaceSaving readFrom(DataInput in) throws IOException {
+        SpaceSaving summary = new SpaceSaving(in.readInt());
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            String item = in.readUTF();
+            long count = in.readLong();
+            long error = in.readLong();
+            summary.counters.put(item, new long[]{count, error});
+            summary.itemsByCount.computeIfAbsent(count, k -> new LinkedHashSet<>()).add(item);
+        }
+        return summary;
+    }
+
+    private void move(String item, long from, long to) {
+        remove(item, from);
+        itemsByCount.computeIfAbsent(to, k -> new LinkedHashSet<>()).add(item);
+    }
+
+    private void remove(String item, long count) {
+        Set<String> items = itemsByCount.get(count);
+        items.remove(item);
+        if (items.isEmpty()) {
+            itemsByCount.remove(count);
+        }
+    }
+}
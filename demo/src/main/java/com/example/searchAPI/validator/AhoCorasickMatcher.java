@@ -0,0 +1,119 @@
+package com.example.searchAPI.validator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.TreeMap;
+
+public final class AhoCorasickMatcher {
+
+    private static final int ROOT = 0;
+
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] failure;
+    private final boolean[] terminal;
+    private final int patternCount;
+
+    private AhoCorasickMatcher(char[][] labels, int[][] targets, int[] failure, boolean[] terminal, int patternCount) {
+        this.labels = labels;
+        this.targets = targets;
+        this.failure = failure;
+        this.terminal = terminal;
+        this.patternCount = patternCount;
+    }
+
+    public static AhoCorasickMatcher compile(Collection<String> patterns) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Boolean> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(false);
+
+        int count = 0;
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isEmpty()) continue;
+            int state = ROOT;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = trie.get(state).get(pattern.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    ends.add(false);
+                    trie.get(state).put(pattern.charAt(i), next);
+                }
+                state = next;
+            }
+            if (!ends.get(state)) count++;
+            ends.set(state, true);
+        }
+
+        int size = trie.size();
+        char[][] labels = new char[size][];
+        int[][] targets = new int[size][];
+        boolean[] terminal = new boolean[size];
+        for (int s = 0; s < size; s++) {
+            TreeMap<Character, Integer> edges = trie.get(s);
+            labels[s] = new char[edges.size()];
+            targets[s] = new int[edges.size()];
+            int i = 0;
+            for (var edge : edges.entrySet()) {
+                labels[s][i] = edge.getKey();
+                targets[s][i++] = edge.getValue();
+            }
+            terminal[s] = ends.get(s);
+        }
+
+        int[] failure = new int[size];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[ROOT]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < labels[state].length; i++) {
+                int child = targets[state][i];
+                int fallback = failure[state];
+                int next;
+                while ((next = step(labels, targets, fallback, labels[state][i])) < 0 && fallback != ROOT) {
+                    fallback = failure[fallback];
+                }
+                failure[child] = next < 0 ? ROOT : next;
+                terminal[child] |= terminal[failure[child]];
+                queue.add(child);
+            }
+        }
+        return new AhoCorasickMatcher(labels, targets, failure, terminal, count);
+    }
+
+    public boolean containsAny(CharSequence text) {
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = step(labels, targets, state, c)) < 0 && state != ROOT) {
+                state = failure[state];
+            }
+            state = next < 0 ? ROOT : next;
+            if (terminal[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getPatternCount() {
+        return patternCount;
+    }
+
+    public int getStateCount() {
+        return failure.length;
+    }
+
+    private static int step(char[][] labels, int[][] targets, int state, char c) {
+        int i = Arrays.binarySearch(labels[state], c);
+        return i < 0 ? -1 : targets[state][i];
+    }
+}
@@ -1,42 +1,95 @@
 package com.example.searchAPI.validator;
 
-import com.example.searchAPI.view.Log;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
+@Component
 public class ForbiddenWordValidator {
 
-    private final List<String> configData;
+    private final Logger logger = LoggerFactory.getLogger(ForbiddenWordValidator.class);
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public ForbiddenWordValidator(String filePath) {
-        this.configData = loadJsonFromFile(filePath);
+    private final AtomicReference<AhoCorasickMatcher> matcher = new AtomicReference<>(AhoCorasickMatcher.compile(Collections.emptyList()));
+    private final LongAdder matchCount = new LongAdder();
+    private final LongAdder matchNanos = new LongAdder();
+
+    @Value("${search.forbiddenPath}")
+    private String filePath;
+
+    private volatile FileTime lastModified;
+    private volatile long lastLoadTimeMillis;
+    private String lastError;
+
+    @PostConstruct
+    public void init() {
+        reloadIfModified();
     }
 
-    private List<String> loadJsonFromFile(String filePath) {
+    @Scheduled(fixedDelayString = "${search.forbidden.reloadIntervalMs:5000}", initialDelayString = "${search.forbidden.reloadIntervalMs:5000}")
+    public void reloadIfModified() {
+        Path path = Paths.get(filePath);
         try {
-            List<String> data = objectMapper.readValue(new File(filePath), new TypeReference<List<String>>() {
+            FileTime modified = Files.getLastModifiedTime(path);
+            if (modified.equals(lastModified)) return;
+
+            long start = System.nanoTime();
+            List<String> data = objectMapper.readValue(path.toFile(), new TypeReference<List<String>>() {
             });
-            Log.info(ForbiddenWordValidator.class.getName(), "Read Config File successful");
-            return data;
-        } catch (
-                IOException e) {
-            Log.error(ForbiddenWordValidator.class.getName(), "Failed to read config file: " + e.getMessage());
+            AhoCorasickMatcher compiled = AhoCorasickMatcher.compile(data);
+            lastLoadTimeMillis = (System.nanoTime() - start) / 1_000_000;
+
+            matcher.set(compiled);
+            lastModified = modified;
+            lastError = null;
+            logger.info("Loaded forbidden words from {}: {} patterns, {} states in {} ms", filePath, compiled.getPatternCount(), compiled.getStateCount(), lastLoadTimeMillis);
+        } catch (IOException e) {
+            // Retried every interval, so a file that stays missing or broken is reported once.
+            String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            if (!error.equals(lastError)) {
+                logger.error("Failed to read config file: {}", e.getMessage());
+                lastError = error;
+            }
         }
-        return Collections.emptyList();
     }
 
     public boolean isForbiddenWord(String keyword) {
-        for (String forbiddenWord : configData) {
-            if (keyword.contains(forbiddenWord)) {
-                return true;
-            }
-        }
-        return false;
+        long start = System.nanoTime();
+        boolean forbidden = matcher.get().containsAny(keyword);
+        matchNanos.add(System.nanoTime() - start);
+        matchCount.increment();
+        return forbidden;
+    }
+
+    public int getPatternCount() {
+        return matcher.get().getPatternCount();
+    }
+
+    public long getLastLoadTimeMillis() {
+        return lastLoadTimeMillis;
+    }
+
+    public long getMatchCount() {
+        return matchCount.sum();
+    }
+
+    public double getAverageMatchNanos() {
+        long count = matchCount.sum();
+        return count == 0 ? 0 : (double) matchNanos.sum() / count;
     }
 }
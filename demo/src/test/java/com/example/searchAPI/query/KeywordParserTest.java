@@ -0,0 +1,46 @@
+package com.example.searchAPI.query;
+
+import com.example.searchAPI.query.KeywordQuery.Clause;
+import com.example.searchAPI.query.KeywordQuery.Occur;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeywordParserTest {
+
+	@Test
+	void operatorsApplyUntilTheNextOperator() {
+		assertEquals(List.of(
+						new Clause(Occur.SHOULD, "날씨", false),
+						new Clause(Occur.MUST, "서울 맛집", false),
+						new Clause(Occur.MUST_NOT, "광고", false)),
+				KeywordParser.parse("날씨 +서울   맛집 -광고").getClauses());
+	}
+
+	@Test
+	void quotesMakeRequiredOrExcludedPhrases() {
+		assertEquals(List.of(
+						new Clause(Occur.MUST, "exact phrase", true),
+						new Clause(Occur.SHOULD, "rest", false),
+						new Clause(Occur.MUST_NOT, "bad phrase", true)),
+				KeywordParser.parse("\"exact phrase\" rest -\"bad phrase\"").getClauses());
+	}
+
+	@Test
+	void malformedInputNeitherFailsNorProducesEmptyClauses() {
+		assertEquals(List.of(new Clause(Occur.MUST, "open phrase", true)), KeywordParser.parse("\"open phrase").getClauses());
+		assertEquals(List.of(new Clause(Occur.SHOULD, "e-mail c++", false)), KeywordParser.parse("e-mail c++").getClauses());
+		assertTrue(KeywordParser.parse(" + - \"\"  \"").isEmpty());
+		assertTrue(KeywordParser.parse("").isEmpty());
+	}
+
+	@Test
+	void clauseOrderAndSpacingDoNotChangeTheNormalizedForm() {
+		KeywordQuery query = KeywordParser.parse("+a  -b \"c d\"");
+		assertEquals(query.getNormalizedClauses(), KeywordParser.parse("\"c   d\" -b +a").getNormalizedClauses());
+		assertEquals(List.of("a", "c d"), query.getSearchTerms());
+	}
+}
@@ -0,0 +1,206 @@
+package com.example.searchAPI.resilience;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpHost;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the guard against a local stub of the Elasticsearch search endpoint whose status and latency are
+ * controlled by each test.
+ */
+class ResilienceGuardTest {
+
+	private static final String EMPTY_SEARCH_RESPONSE = "{\"took\":1,\"timed_out\":false,"
+			+ "\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0},"
+			+ "\"hits\":{\"total\":{\"value\":0,\"relation\":\"eq\"},\"max_score\":null,\"hits\":[]}}";
+
+	private final AtomicInteger status = new AtomicInteger(200);
+	private final AtomicLong latencyMs = new AtomicLong();
+	private final Queue<Long> scriptedLatencyMs = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger requests = new AtomicInteger();
+
+	private HttpServer server;
+	private ExecutorService serverExecutor;
+	private RestHighLevelClient client;
+	private ScheduledExecutorService scheduler;
+
+	@BeforeEach
+	void startStub() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		serverExecutor = Executors.newCachedThreadPool();
+		server.setExecutor(serverExecutor);
+		server.createContext("/", exchange -> {
+			requests.incrementAndGet();
+			Long scripted = scriptedLatencyMs.poll();
+			sleep(scripted != null ? scripted : latencyMs.get());
+
+			byte[] body = (status.get() == 200 ? EMPTY_SEARCH_RESPONSE : "{}").getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(status.get(), body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.start();
+
+		client = new RestHighLevelClient(RestClient.builder(new HttpHost("127.0.0.1", server.getAddress().getPort(), "http")));
+		scheduler = Executors.newSingleThreadScheduledExecutor();
+	}
+
+	@AfterEach
+	void stopStub() throws IOException {
+		client.close();
+		server.stop(0);
+		serverExecutor.shutdownNow();
+		scheduler.shutdownNow();
+	}
+
+	@Test
+	void circuitOpensOnFailuresRejectsFastAndClosesAfterProbe() throws Exception {
+		ResilienceGuard guard = guard(new AdaptiveLimiter(10, 1, 10, 0.9, TimeUnit.SECONDS.toNanos(5)),
+				new CircuitBreaker(10, 5, 0.5, TimeUnit.MILLISECONDS.toNanos(200), 1), false);
+
+		status.set(503);
+		for (int i = 0; i < 5; i++) {
+			assertTrue(failure(guard.execute(this::search)) instanceof Exception);
+		}
+		assertEquals(CircuitBreaker.State.OPEN, guard.getCircuitBreaker().getState());
+
+		// Rejected without sending anything to the stub.
+		int sent = requests.get();
+		assertInstanceOf(RejectedCallException.class, failure(guard.execute(this::search)));
+		assertEquals(sent, requests.get());
+		assertEquals(1, guard.getCircuitBreaker().getRejectedCount());
+
+		Thread.sleep(250);
+		status.set(200);
+		assertNotNull(guard.execute(this::search).get(5, TimeUnit.SECONDS));
+		assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker().getState());
+	}
+
+	@Test
+	void callAdmittedWhileClosedDoesNotCountAsAProbe() throws Exception {
+		CircuitBreaker breaker = new CircuitBreaker(2, 2, 0.5, TimeUnit.MILLISECONDS.toNanos(10), 1);
+		CircuitBreaker.Permit slow = breaker.tryAcquire();
+		breaker.onFailure(breaker.tryAcquire());
+		breaker.onFailure(breaker.tryAcquire());
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+		Thread.sleep(20);
+		CircuitBreaker.Permit probe = breaker.tryAcquire();
+		assertNotNull(probe);
+		assertNull(breaker.tryAcquire());
+
+		// The call from before the circuit opened finishes late: it neither closes nor re-opens the circuit.
+		breaker.onSuccess(slow);
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertNull(breaker.tryAcquire());
+		breaker.onFailure(slow);
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+		breaker.onSuccess(probe);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	void limitBacksOffUnderLatencyAndRejectsExcessCalls() throws Exception {
+		ResilienceGuard guard = guard(new AdaptiveLimiter(8, 2, 8, 0.5, TimeUnit.MILLISECONDS.toNanos(20)),
+				new CircuitBreaker(10, 10, 1.0, TimeUnit.SECONDS.toNanos(10), 1), false);
+
+		latencyMs.set(100);
+		for (int i = 0; i < 3; i++) {
+			guard.execute(this::search).get(5, TimeUnit.SECONDS);
+		}
+		assertEquals(2, guard.getLimiter().getLimit());
+
+		List<CompletableFuture<SearchResponse>> calls = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			calls.add(guard.execute(this::search));
+		}
+		int rejected = 0;
+		for (CompletableFuture<SearchResponse> call : calls) {
+			try {
+				call.get(5, TimeUnit.SECONDS);
+			} catch (ExecutionException e) {
+				assertInstanceOf(RejectedCallException.class, e.getCause());
+				rejected++;
+			}
+		}
+		assertEquals(2, rejected);
+	}
+
+	@Test
+	void hedgedRequestAnswersWhenPrimaryIsSlow() throws Exception {
+		ResilienceGuard guard = guard(new AdaptiveLimiter(10, 1, 10, 0.9, TimeUnit.SECONDS.toNanos(5)),
+				new CircuitBreaker(10, 10, 1.0, TimeUnit.SECONDS.toNanos(10), 1), true);
+
+		// Warm up a pooled connection so the primary request reaches the stub before the hedge.
+		search().get(5, TimeUnit.SECONDS);
+		scriptedLatencyMs.add(2000L);
+		assertNotNull(guard.execute(this::search).get(5, TimeUnit.SECONDS));
+
+		// The hedge answered: it was sent and won over the slow primary.
+		assertEquals(1, guard.getHedgedCount());
+		assertEquals(1, guard.getHedgeWinCount());
+	}
+
+	private ResilienceGuard guard(AdaptiveLimiter limiter, CircuitBreaker circuitBreaker, boolean hedge) {
+		return new ResilienceGuard("test", limiter, circuitBreaker, new LatencyWindow(64), hedge,
+				TimeUnit.MILLISECONDS.toNanos(50), scheduler);
+	}
+
+	private CompletableFuture<SearchResponse> search() {
+		CompletableFuture<SearchResponse> future = new CompletableFuture<>();
+		client.searchAsync(new SearchRequest("stub"), RequestOptions.DEFAULT,
+				ActionListener.wrap(future::complete, future::completeExceptionally));
+		return future;
+	}
+
+	private static Throwable failure(CompletableFuture<?> future) throws Exception {
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			throw new AssertionError("Expected the call to fail");
+		} catch (ExecutionException e) {
+			return e.getCause();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package com.example.searchAPI.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AutoCompleteIndexTest {
+
+	private final AutoCompleteIndex index = AutoCompleteIndex.build(Map.of(
+			"검색", 100L,
+			"검색엔진", 50L,
+			"감사", 30L,
+			"거실", 20L,
+			"고속", 10L,
+			"값", 5L));
+
+	@Test
+	void initialConsonantsMatchThroughTheChosungKeys() {
+		assertEquals(List.of("검색", "검색엔진", "감사"), index.chosung("ㄱㅅ", 3));
+		assertEquals(List.of("검색", "검색엔진", "감사", "거실", "고속"), index.chosung("ㄱㅅ", 10));
+		assertEquals(List.of("검색엔진"), index.chosung("ㄱㅅㅇ", 10));
+	}
+
+	@Test
+	void partialSyllablesMatchThroughTheJamoKeys() {
+		assertEquals(List.of("검색", "검색엔진"), index.chosung("검ㅅ", 10));
+		assertEquals(List.of("검색", "검색엔진", "거실"), index.chosung("거", 10));
+		assertEquals(List.of("값"), index.chosung("갑", 10));
+	}
+
+	@Test
+	void compoundConsonantsAreNotTreatedAsInitials() {
+		// ㄳ is the final of 값, not the initials ㄱㅅ, so it only matches a key whose jamo start with ㄱㅅ.
+		assertTrue(index.chosung("ㄳ", 10).isEmpty());
+	}
+}
@@ -0,0 +1,58 @@
+package com.example.searchAPI.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HangulTest {
+
+	@Test
+	void chosungKeepsTheInitialOfEachSyllable() {
+		assertEquals("ㄱㅅㅇㅈ", Hangul.chosung("검색엔진"));
+		assertEquals("ㄲㄸㅃㅆㅉ", Hangul.chosung("까따빠싸짜"));
+		assertEquals("ㄱㅎ", Hangul.chosung("가힣"));
+		assertEquals("java ㄱㅂㅈ", Hangul.chosung("java 개발자"));
+	}
+
+	@Test
+	void jamoSplitsSyllablesCompoundVowelsAndFinals() {
+		assertEquals("ㄱㅓㅁㅅㅐㄱ", Hangul.jamo("검색"));
+		assertEquals("ㄱㅗㅏ", Hangul.jamo("과"));
+		assertEquals("ㅇㅡㅣ", Hangul.jamo("의"));
+		assertEquals("ㄱㅏㅂㅅ", Hangul.jamo("값"));
+		assertEquals("ㄷㅏㄹㄱ", Hangul.jamo("닭"));
+		assertEquals("ㅎㅣㅎ", Hangul.jamo("힣"));
+		assertEquals("ㄱㅅㅗㅏㄹㅎ", Hangul.jamo("ㄳㅘㅀ"));
+		assertEquals("ab ㄱ", Hangul.jamo("ab ㄱ"));
+	}
+
+	@Test
+	void everySyllableDecomposesIntoSingleJamoStartingWithItsInitial() {
+		for (char c = '가'; c <= '힣'; c++) {
+			String jamo = Hangul.jamo(String.valueOf(c));
+			assertEquals(Hangul.chosung(String.valueOf(c)).charAt(0), jamo.charAt(0));
+			assertTrue(jamo.length() >= 2 && jamo.length() <= 5, c + " -> " + jamo);
+			// No compound jamo is left to split.
+			assertEquals(jamo, Hangul.jamo(jamo), c + " -> " + jamo);
+		}
+		// Each intermediate state of typing a syllable is a prefix of its key.
+		assertTrue(Hangul.jamo("값").startsWith(Hangul.jamo("갑")));
+		assertTrue(Hangul.jamo("과").startsWith(Hangul.jamo("고")));
+	}
+
+	@Test
+	void onlyTheNineteenInitialsMakeAChosungQuery() {
+		assertTrue(Hangul.isChosungOnly("ㄱㅅ"));
+		assertTrue(Hangul.isChosungOnly("ㄱ ㅅ"));
+		assertTrue(Hangul.isChosungOnly("ㄲㄸㅃㅆㅉㅎ"));
+
+		assertFalse(Hangul.isChosungOnly("ㄳ"));
+		assertFalse(Hangul.isChosungOnly("ㄱㅄ"));
+		assertFalse(Hangul.isChosungOnly("ㄱㅏ"));
+		assertFalse(Hangul.isChosungOnly("검ㅅ"));
+		assertFalse(Hangul.isChosungOnly("  "));
+		assertFalse(Hangul.isChosungOnly(""));
+	}
+}
@@ -0,0 +1,126 @@
+package com.example.searchAPI.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchLogSpoolTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void readsRecordsBackInOrderUnderStableIds() throws IOException {
+		SearchLogSpool spool = open(1024);
+		spool.append(records(0, 3));
+
+		SearchLogSpool.Batch batch = spool.read(10);
+		assertEquals(List.of("record-0", "record-1", "record-2"), strings(batch));
+		assertEquals(3, batch.getIds().stream().distinct().count());
+		// Uncommitted records are read again under the same ids, so a retried bulk overwrites them.
+		assertEquals(batch.getIds(), spool.read(10).getIds());
+
+		spool.commit(batch.getEnd());
+		assertTrue(spool.read(10).isEmpty());
+	}
+
+	@Test
+	void rollsSegmentsAndDeletesThemOnceCommitted() throws IOException {
+		// Each 8-byte record takes 16 bytes with its header, so a 40-byte segment holds two.
+		SearchLogSpool spool = open(40);
+		spool.append(records(0, 5));
+		assertEquals(3, segments().size());
+
+		SearchLogSpool.Batch first = spool.read(3);
+		assertEquals(List.of("record-0", "record-1", "record-2"), strings(first));
+		spool.commit(first.getEnd());
+		assertEquals(2, segments().size());
+
+		SearchLogSpool.Batch rest = spool.read(10);
+		assertEquals(List.of("record-3", "record-4"), strings(rest));
+		assertTrue(rest.getIds().stream().noneMatch(first.getIds()::contains));
+	}
+
+	@Test
+	void resumesFromTheCommittedOffsetAfterACrash() throws IOException {
+		SearchLogSpool spool = open(40);
+		spool.append(records(0, 5));
+		SearchLogSpool.Batch committed = spool.read(3);
+		spool.commit(committed.getEnd());
+		List<String> pendingIds = spool.read(10).getIds();
+
+		// Reopened without close(), as after a crash.
+		SearchLogSpool reopened = open(40);
+		SearchLogSpool.Batch pending = reopened.read(10);
+		assertEquals(List.of("record-3", "record-4"), strings(pending));
+		assertEquals(pendingIds, pending.getIds());
+
+		reopened.append(records(5, 1));
+		assertEquals(List.of("record-3", "record-4", "record-5"), strings(reopened.read(10)));
+	}
+
+	@Test
+	void stopsAtACorruptRecordAndAppendsOverIt() throws IOException {
+		SearchLogSpool spool = open(1024);
+		spool.append(records(0, 3));
+		corrupt(segments().get(0), 16 + 8);
+
+		SearchLogSpool reopened = open(1024);
+		assertEquals(List.of("record-0"), strings(reopened.read(10)));
+
+		reopened.append(records(3, 1));
+		assertEquals(List.of("record-0", "record-3"), strings(reopened.read(10)));
+	}
+
+	private SearchLogSpool open(int segmentBytes) throws IOException {
+		SearchLogSpool spool = new SearchLogSpool();
+		ReflectionTestUtils.setField(spool, "enabled", true);
+		ReflectionTestUtils.setField(spool, "directory", directory.toString());
+		ReflectionTestUtils.setField(spool, "segmentBytes", segmentBytes);
+		ReflectionTestUtils.setField(spool, "maxSegments", 64);
+		spool.open();
+		return spool;
+	}
+
+	private static List<byte[]> records(int from, int count) {
+		List<byte[]> records = new ArrayList<>();
+		for (int i = from; i < from + count; i++) {
+			records.add(("record-" + i).getBytes(StandardCharsets.UTF_8));
+		}
+		return records;
+	}
+
+	private static List<String> strings(SearchLogSpool.Batch batch) {
+		List<String> strings = new ArrayList<>();
+		for (byte[] record : batch.getRecords()) {
+			strings.add(new String(record, StandardCharsets.UTF_8));
+		}
+		return strings;
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(path -> path.toString().endsWith(".seg")).sorted().toList();
+		}
+	}
+
+	private static void corrupt(Path segment, int position) throws IOException {
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[]{'X'}), position);
+		}
+	}
+}
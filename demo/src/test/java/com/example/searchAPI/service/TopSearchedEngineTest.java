@@ -0,0 +1,76 @@
+package com.example.searchAPI.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TopSearchedEngineTest {
+
+	@TempDir
+	Path directory;
+
+	private final LocalDate today = LocalDate.now();
+	private TopSearchedEngine engine;
+
+	@BeforeEach
+	void startEngine() {
+		engine = new TopSearchedEngine();
+		ReflectionTestUtils.setField(engine, "enabled", true);
+		ReflectionTestUtils.setField(engine, "capacity", 100);
+		ReflectionTestUtils.setField(engine, "sketchDepth", 4);
+		ReflectionTestUtils.setField(engine, "sketchWidth", 256);
+		ReflectionTestUtils.setField(engine, "retentionDays", 400);
+		ReflectionTestUtils.setField(engine, "checkpointPath", directory.resolve("topsearched.bin").toString());
+		ReflectionTestUtils.setField(engine, "rebuildOnStartup", false);
+		ReflectionTestUtils.setField(engine, "rangeCacheSize", 8L);
+		engine.init();
+
+		search("날씨", 50, today.minusDays(3));
+		search("주식", 40, today.minusDays(2));
+		search("뉴스", 30, today.minusDays(1));
+		search("날씨", 5, today.minusDays(1));
+		search("환율", 45, today);
+	}
+
+	@Test
+	void ranksClosedDaysTogetherWithToday() {
+		assertEquals(List.of("날씨 55", "환율 45", "주식 40"), top(null, null, 3));
+		assertEquals(List.of("주식 40", "뉴스 30", "날씨 5"), top(today.minusDays(2), today.minusDays(1), 5));
+
+		// Today changes on every call, without recomputing the closed days.
+		search("주식", 20, today);
+		assertEquals(List.of("주식 60", "날씨 55", "환율 45", "뉴스 30"), top(null, null, 10));
+		assertEquals(List.of("주식 60", "환율 45"), top(today.minusDays(2), today, 2));
+	}
+
+	@Test
+	void recordingIntoAClosedDayRefreshesItsRanges() {
+		assertEquals(List.of("날씨 55", "환율 45"), top(null, null, 2));
+		assertEquals(List.of("뉴스 30", "날씨 5"), top(today.minusDays(1), today.minusDays(1), 2));
+
+		search("뉴스", 30, today.minusDays(1));
+		assertEquals(List.of("뉴스 60", "날씨 55"), top(null, null, 2));
+		assertEquals(List.of("뉴스 60", "날씨 5"), top(today.minusDays(1), today.minusDays(1), 2));
+	}
+
+	private void search(String term, int times, LocalDate date) {
+		engine.record(Collections.nCopies(times, term), date);
+	}
+
+	private List<String> top(LocalDate from, LocalDate to, int size) {
+		List<String> top = new ArrayList<>();
+		for (TopSearchedService.TopSearchedData data : engine.top(from, to, size)) {
+			top.add(data.keyword + " " + data.count);
+		}
+		return top;
+	}
+}
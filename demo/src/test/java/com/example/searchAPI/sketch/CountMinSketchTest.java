@@ -0,0 +1,79 @@
+package com.example.searchAPI.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountMinSketchTest {
+
+	private static final int ITEMS = 2000;
+
+	@Test
+	void neverUnderestimatesAndRarelyExceedsTheErrorBound() {
+		// width e/0.01 and depth 4: each estimate is within 1% of the total with probability 1 - e^-4 (about 98%).
+		CountMinSketch sketch = new CountMinSketch(4, 272);
+		long total = 0;
+		for (int i = 0; i < ITEMS; i++) {
+			sketch.add("term-" + i, count(i));
+			total += count(i);
+		}
+
+		int outsideBound = 0;
+		for (int i = 0; i < ITEMS; i++) {
+			long estimate = sketch.estimate("term-" + i);
+			assertTrue(estimate >= count(i), "term-" + i + " underestimated");
+			if (estimate > count(i) + total / 100) outsideBound++;
+		}
+		assertTrue(outsideBound <= ITEMS * 5 / 100, outsideBound + " estimates outside the error bound");
+	}
+
+	@Test
+	void mergedSketchEqualsOneFedEveryItem() {
+		CountMinSketch left = new CountMinSketch(4, 64);
+		CountMinSketch right = new CountMinSketch(4, 64);
+		CountMinSketch whole = new CountMinSketch(4, 64);
+		for (int i = 0; i < ITEMS; i++) {
+			(i % 3 == 0 ? left : right).add("term-" + i % 500, count(i));
+			whole.add("term-" + i % 500, count(i));
+		}
+
+		left.merge(right);
+		for (int i = 0; i < 500; i++) {
+			assertEquals(whole.estimate("term-" + i), left.estimate("term-" + i));
+		}
+		assertThrows(IllegalArgumentException.class, () -> left.merge(new CountMinSketch(4, 128)));
+	}
+
+	@Test
+	void survivesACheckpointRoundTrip() throws IOException {
+		CountMinSketch sketch = new CountMinSketch(3, 100);
+		for (int i = 0; i < ITEMS; i++) {
+			sketch.add("검색어-" + i % 300, count(i));
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		sketch.writeTo(new DataOutputStream(bytes));
+		CountMinSketch restored = CountMinSketch.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+		for (int i = 0; i < 300; i++) {
+			assertEquals(sketch.estimate("검색어-" + i), restored.estimate("검색어-" + i));
+		}
+		restored.merge(sketch);
+		assertEquals(2 * sketch.estimate("검색어-0"), restored.estimate("검색어-0"));
+	}
+
+	/**
+	 * Skewed counts: a few frequent terms and a long tail.
+	 */
+	private static long count(int i) {
+		return i < 20 ? 1000 - 40L * i : 1 + i % 5;
+	}
+}
@@ -0,0 +1,96 @@
+package com.example.searchAPI.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpaceSavingTest {
+
+	private static final int CAPACITY = 10;
+
+	@Test
+	void keepsHeavyHittersWithinTheErrorBound() {
+		SpaceSaving summary = new SpaceSaving(CAPACITY);
+		long total = feed(summary, "", 300);
+
+		// Any item counted more than total / capacity times is kept, overestimated by at most total / capacity.
+		for (String heavy : new String[]{"날씨", "주식", "뉴스"}) {
+			assertTrue(summary.contains(heavy), heavy + " was evicted");
+			assertTrue(summary.count(heavy) >= 100);
+			assertTrue(summary.count(heavy) - 100 <= total / CAPACITY);
+		}
+		assertTrue(summary.isFull());
+		assertTrue(summary.minCount() <= total / CAPACITY);
+		assertEquals(CAPACITY, summary.items().size());
+	}
+
+	@Test
+	void mergingDayBucketsKeepsTheHeavyHittersOfBoth() {
+		SpaceSaving day = new SpaceSaving(CAPACITY);
+		SpaceSaving otherDay = new SpaceSaving(CAPACITY);
+		feed(day, "a", 300);
+		feed(otherDay, "b", 300);
+		otherDay.offer("날씨", 50);
+
+		// Merged the way TopSearchedEngine merges day buckets: the other summary's counts are offered in.
+		for (String item : otherDay.items()) {
+			day.offer(item, otherDay.count(item));
+		}
+
+		assertTrue(day.count("날씨") >= 250);
+		assertTrue(day.count("주식") >= 200);
+		assertTrue(day.count("뉴스") >= 200);
+		assertEquals(CAPACITY, day.items().size());
+	}
+
+	@Test
+	void survivesACheckpointRoundTrip() throws IOException {
+		SpaceSaving summary = new SpaceSaving(CAPACITY);
+		feed(summary, "", 300);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		summary.writeTo(new DataOutputStream(bytes));
+		SpaceSaving restored = SpaceSaving.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+		assertEquals(summary.items(), restored.items());
+		for (String item : summary.items()) {
+			assertEquals(summary.count(item), restored.count(item));
+		}
+		assertEquals(summary.minCount(), restored.minCount());
+		assertTrue(restored.isFull());
+
+		// The restored summary keeps counting and evicting from its minimum.
+		restored.offer("날씨", 5);
+		assertEquals(summary.count("날씨") + 5, restored.count("날씨"));
+		restored.offer("새 검색어", 1);
+		assertTrue(restored.contains("새 검색어"));
+		assertEquals(summary.minCount() + 1, restored.count("새 검색어"));
+		assertFalse(restored.items().size() > CAPACITY);
+	}
+
+	/**
+	 * Three terms searched 100 times each, interleaved with {@code singletons} terms searched once.
+	 */
+	private static long feed(SpaceSaving summary, String prefix, int singletons) {
+		long total = 0;
+		for (int i = 0; i < singletons; i++) {
+			if (i % 3 == 0) {
+				summary.offer("날씨", 1);
+				summary.offer("주식", 1);
+				summary.offer("뉴스", 1);
+				total += 3;
+			}
+			summary.offer(prefix + "tail-" + i, 1);
+			total++;
+		}
+		return total;
+	}
+}
@@ -0,0 +1,63 @@
+package com.example.searchAPI.validator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AhoCorasickMatcherTest {
+
+	@Test
+	void emptyWordListMatchesNothing() {
+		AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(Collections.emptyList());
+
+		assertFalse(matcher.containsAny("anything"));
+		assertFalse(matcher.containsAny(""));
+		assertEquals(0, matcher.getPatternCount());
+		assertEquals(1, matcher.getStateCount());
+
+		AhoCorasickMatcher blanks = AhoCorasickMatcher.compile(Arrays.asList("", null));
+		assertFalse(blanks.containsAny("anything"));
+		assertEquals(0, blanks.getPatternCount());
+	}
+
+	@Test
+	void followsFailureLinksAfterAPartialMatch() {
+		AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("abcd", "bce"));
+
+		// "abc" fails over to "bc", which then continues with 'e'.
+		assertTrue(matcher.containsAny("abce"));
+		assertTrue(matcher.containsAny("xxabcabcd"));
+		assertFalse(matcher.containsAny("abcf"));
+		assertFalse(matcher.containsAny("bcd"));
+	}
+
+	@Test
+	void findsOverlappingWordsAndWordsEndingInsideLongerOnes() {
+		AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("he", "she", "his", "hers"));
+		assertTrue(matcher.containsAny("ushers"));
+		assertTrue(matcher.containsAny("ahis"));
+		assertFalse(matcher.containsAny("hi s"));
+
+		// "bc" is a suffix of the path "abc", so it is found before "abcd" could complete.
+		AhoCorasickMatcher suffix = AhoCorasickMatcher.compile(List.of("abcd", "bc"));
+		assertTrue(suffix.containsAny("abcx"));
+		assertFalse(suffix.containsAny("abxc"));
+	}
+
+	@Test
+	void matchesKoreanWords() {
+		AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("금지어", "바보", "금지어"));
+
+		assertTrue(matcher.containsAny("이건 금지어입니다"));
+		assertTrue(matcher.containsAny("바보같은 검색"));
+		assertFalse(matcher.containsAny("금지 어"));
+		assertFalse(matcher.containsAny("바 보"));
+		assertEquals(2, matcher.getPatternCount());
+	}
+}
@@ -1,9 +1,10 @@
 package main;
 
+import com.example.searchAPI.ElasticsearchSearchApiApplication;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(classes = ElasticsearchSearchApiApplication.class)
 class ElasticsearchSearchApiApplicationTests {
 
 	@Test